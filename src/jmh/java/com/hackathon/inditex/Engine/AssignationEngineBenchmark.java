@@ -0,0 +1,76 @@
+package com.hackathon.inditex.Engine;
+
+import com.hackathon.inditex.Entities.Center;
+import com.hackathon.inditex.Entities.Order;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the assignation engines alone: opening a session over the centers and
+ * choosing the closest center of every order (or, for the optimal engine, the assignation
+ * with the smallest total distance, the whole dataset being a single chunk).
+ *
+ * The largest datasets (100k centers, 1M orders) can be selected with
+ * {@code -p centers=100000 -p orders=1000000}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class AssignationEngineBenchmark {
+
+    @Param({IndexAssignationEngine.NAME, AssignationKernel.NAME, ParallelAssignationEngine.NAME, OptimalAssignationEngine.NAME})
+    private String engine;
+
+    @Param({"10", "1000", "10000"})
+    private int centers;
+
+    @Param({"1000", "100000"})
+    private int orders;
+
+    @Param({"UNIFORM", "CLUSTERED"})
+    private BenchmarkData.Geography geography;
+
+    private AssignationEngine assignationEngine;
+    private List<Center> centerList;
+    private List<Order> orderList;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Enough capacity on average for every order
+        centerList = BenchmarkData.centers(centers, geography, Math.max(1, orders / centers), 1);
+        orderList = BenchmarkData.orders(orders, geography, 2);
+
+        if (IndexAssignationEngine.NAME.equals(engine)) {
+            IndexAssignationEngine indexEngine = new IndexAssignationEngine();
+            ReflectionTestUtils.setField(indexEngine, "centerSpatialIndex", new CenterSpatialIndex());
+            assignationEngine = indexEngine;
+        } else if (ParallelAssignationEngine.NAME.equals(engine)) {
+            assignationEngine = new ParallelAssignationEngine();
+        } else if (OptimalAssignationEngine.NAME.equals(engine)) {
+            assignationEngine = new OptimalAssignationEngine();
+        } else {
+            assignationEngine = new AssignationKernel();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (assignationEngine instanceof ParallelAssignationEngine parallelEngine) {
+            parallelEngine.shutdown();
+        }
+    }
+
+    @Benchmark
+    public void assignAll(Blackhole blackhole) {
+        // Sessions keep their own loads, so the same centers can be reused by every invocation
+        AssignationSession session = assignationEngine.open(centerList);
+        blackhole.consume(session.assignAll(orderList));
+    }
+}
@@ -0,0 +1,117 @@
+package com.hackathon.inditex.Engine;
+
+import com.hackathon.inditex.Entities.Center;
+import com.hackathon.inditex.Entities.Coordinates;
+import com.hackathon.inditex.Entities.Order;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Synthetic datasets of centers and orders for the benchmarks.
+ *
+ * Datasets are generated from a fixed seed, so every run of a benchmark works over the same data.
+ */
+public final class BenchmarkData {
+
+    /** Geographic distribution of the generated points */
+    public enum Geography {
+        /** Points spread uniformly over the whole sphere */
+        UNIFORM,
+        /** Points grouped around a few dense areas, like cities */
+        CLUSTERED
+    }
+
+    // Valid values for the Center#capacity attribute
+    private static final String[] CAPACITIES = {"B", "M", "S", "BM", "BS", "MS", "BMS"};
+
+    // Valid values for the Order#size attribute
+    private static final String[] SIZES = {"B", "M", "S"};
+
+    // Number of dense areas of the clustered geography, and their spread in degrees
+    private static final int CLUSTERS = 20;
+    private static final double CLUSTER_SPREAD = 1.5;
+
+    private static final long CLUSTERS_SEED = 42;
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Generates "AVAILABLE" centers with random capacities and an average of averageCapacity free slots.
+     *
+     * @param count the number of centers
+     * @param geography the distribution of the center coordinates
+     * @param averageCapacity the average maxCapacity of the centers
+     * @param seed the random generator seed
+     * @return the generated centers, with ids from 1 to count
+     */
+    public static List<Center> centers(int count, Geography geography, int averageCapacity, long seed) {
+        Random random = new Random(seed);
+        double[][] clusters = clusters();
+
+        List<Center> centers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Center center = new Center();
+            center.setId((long) i + 1);
+            center.setName("Center " + (i + 1));
+            center.setCapacity(CAPACITIES[random.nextInt(CAPACITIES.length)]);
+            center.setStatus("AVAILABLE");
+            center.setCurrentLoad(0);
+            center.setMaxCapacity(1 + random.nextInt(Math.max(1, 2 * averageCapacity)));
+            center.setCoordinates(coordinates(random, geography, clusters));
+            centers.add(center);
+        }
+        return centers;
+    }
+
+    /**
+     * Generates "PENDING" orders with random sizes.
+     *
+     * @param count the number of orders
+     * @param geography the distribution of the order coordinates
+     * @param seed the random generator seed
+     * @return the generated orders, with ids from 1 to count
+     */
+    public static List<Order> orders(int count, Geography geography, long seed) {
+        Random random = new Random(seed);
+        double[][] clusters = clusters();
+
+        List<Order> orders = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Order order = new Order();
+            order.setId((long) i + 1);
+            order.setCustomerId((long) random.nextInt(100_000));
+            order.setSize(SIZES[random.nextInt(SIZES.length)]);
+            order.setStatus("PENDING");
+            order.setCoordinates(coordinates(random, geography, clusters));
+            orders.add(order);
+        }
+        return orders;
+    }
+
+    /** Centers of the dense areas of the clustered geography, shared by centers and orders. */
+    private static double[][] clusters() {
+        Random random = new Random(CLUSTERS_SEED);
+        double[][] clusters = new double[CLUSTERS][];
+        for (int i = 0; i < CLUSTERS; i++) {
+            clusters[i] = new double[]{-50 + 110 * random.nextDouble(), -180 + 360 * random.nextDouble()};
+        }
+        return clusters;
+    }
+
+    private static Coordinates coordinates(Random random, Geography geography, double[][] clusters) {
+        if (geography == Geography.CLUSTERED) {
+            double[] cluster = clusters[random.nextInt(clusters.length)];
+            double latitude = Math.max(-90, Math.min(90, cluster[0] + random.nextGaussian() * CLUSTER_SPREAD));
+            double longitude = cluster[1] + random.nextGaussian() * CLUSTER_SPREAD;
+            return new Coordinates(latitude, ((longitude + 540) % 360) - 180);
+        }
+
+        // Uniform over the sphere surface (not over the latitude range)
+        double latitude = Math.toDegrees(Math.asin(2 * random.nextDouble() - 1));
+        double longitude = -180 + 360 * random.nextDouble();
+        return new Coordinates(latitude, longitude);
+    }
+}
@@ -0,0 +1,55 @@
+package com.hackathon.inditex.Engine;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of a single order-center distance computation: the exact Haversine formula reported in
+ * the assignations against the squared chord between precomputed unit vectors used for ranking.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class DistanceBenchmark {
+
+    // Number of precomputed coordinate pairs (power of two, so the next pair is picked with a mask)
+    private static final int POINTS = 1 << 12;
+
+    private final double[] latitudes = new double[POINTS];
+    private final double[] longitudes = new double[POINTS];
+    private final double[][] points = new double[POINTS][];
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(1);
+        for (int i = 0; i < POINTS; i++) {
+            latitudes[i] = -90 + 180 * random.nextDouble();
+            longitudes[i] = -180 + 360 * random.nextDouble();
+            points[i] = GeoDistance.toUnitVector(latitudes[i], longitudes[i]);
+        }
+    }
+
+    @Benchmark
+    public double calculateDistance() {
+        int start = next;
+        int end = (start + 1) & (POINTS - 1);
+        next = end;
+        return GeoDistance.calculateDistance(latitudes[start], longitudes[start], latitudes[end], longitudes[end]);
+    }
+
+    @Benchmark
+    public double chordSquared() {
+        int start = next;
+        int end = (start + 1) & (POINTS - 1);
+        next = end;
+        double[] a = points[start];
+        double[] b = points[end];
+        return GeoDistance.chordSquared(a[0], a[1], a[2], b[0], b[1], b[2]);
+    }
+}
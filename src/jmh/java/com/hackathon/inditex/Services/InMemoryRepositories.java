@@ -0,0 +1,173 @@
+package com.hackathon.inditex.Services;
+
+import com.hackathon.inditex.Entities.Center;
+import com.hackathon.inditex.Entities.Order;
+import com.hackathon.inditex.Repositories.CenterRepository;
+import com.hackathon.inditex.Repositories.OrderRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory stand-ins of the repositories, the EntityManager, the transactions and the metrics used
+ * by the order assignation, so the benchmarks measure the service logic without any database.
+ *
+ * Only the methods used by {@link OrderManagementService#orderAssignation()} are implemented;
+ * any other call fails with an {@link UnsupportedOperationException}.
+ */
+final class InMemoryRepositories {
+
+    private InMemoryRepositories() {
+    }
+
+    /**
+     * Creates an OrderRepository over the given orders, which must be sorted by id.
+     *
+     * @param orders the stored orders
+     * @return the in-memory repository
+     */
+    static OrderRepository orderRepository(List<Order> orders) {
+        return proxy(OrderRepository.class, (proxy, method, args) -> switch (method.getName()) {
+            case "findByStatusAndIdGreaterThanOrderByIdAsc" ->
+                    findByStatusAfter(orders, (String) args[0], (Long) args[1], (Limit) args[2]);
+            case "saveAll" -> new ArrayList<>((Collection<?>) args[0]);
+            default -> unsupported(method.getName());
+        });
+    }
+
+    /**
+     * Creates a CenterRepository over the given centers.
+     *
+     * @param centers the stored centers
+     * @return the in-memory repository
+     */
+    static CenterRepository centerRepository(List<Center> centers) {
+        Map<Long, Center> centersById = new HashMap<>();
+        centers.forEach(center -> centersById.put(center.getId(), center));
+
+        return proxy(CenterRepository.class, (proxy, method, args) -> switch (method.getName()) {
+            case "findByStatus" -> centers.stream().filter(c -> c.getStatus().equals(args[0])).toList();
+            case "findAllById" -> {
+                Collection<?> ids = (Collection<?>) args[0];
+                yield centers.stream().filter(c -> ids.contains(c.getId())).toList();
+            }
+            case "reserveCapacity" -> reserveCapacity(centersById.get((Long) args[0]), (Integer) args[1]);
+            case "saveAll" -> new ArrayList<>((Collection<?>) args[0]);
+            default -> unsupported(method.getName());
+        });
+    }
+
+    /**
+     * Creates an EntityManager whose flush, clear and detach operations do nothing.
+     *
+     * @return the no-op entity manager
+     */
+    static EntityManager entityManager() {
+        return proxy(EntityManager.class, (proxy, method, args) -> switch (method.getName()) {
+            case "flush", "clear", "detach" -> null;
+            default -> unsupported(method.getName());
+        });
+    }
+
+    /**
+     * Creates a TransactionTemplate whose transactions do nothing besides running their callbacks.
+     *
+     * @return the no-op transaction template
+     */
+    static TransactionTemplate transactionTemplate() {
+        return new TransactionTemplate(new AbstractPlatformTransactionManager() {
+            @Override
+            protected Object doGetTransaction() {
+                return new Object();
+            }
+
+            @Override
+            protected void doBegin(Object transaction, TransactionDefinition definition) {
+            }
+
+            @Override
+            protected void doCommit(DefaultTransactionStatus status) {
+            }
+
+            @Override
+            protected void doRollback(DefaultTransactionStatus status) {
+            }
+        });
+    }
+
+    /**
+     * Creates the AssignationMetrics over an in-memory meter registry, so the benchmarks
+     * include the cost of the instrumentation.
+     *
+     * @return the assignation metrics, with their meters registered
+     */
+    static AssignationMetrics assignationMetrics() {
+        AssignationMetrics assignationMetrics = new AssignationMetrics();
+        ReflectionTestUtils.setField(assignationMetrics, "meterRegistry", new SimpleMeterRegistry());
+        assignationMetrics.bindMetrics();
+        return assignationMetrics;
+    }
+
+    /** Conditional load increment of a center, like the database one. */
+    private static int reserveCapacity(Center center, int amount) {
+        if (center == null || !center.getStatus().equals("AVAILABLE")
+                || center.getCurrentLoad() + amount > center.getMaxCapacity()) {
+            return 0;
+        }
+        center.setCurrentLoad(center.getCurrentLoad() + amount);
+        return 1;
+    }
+
+    /** Keyset pagination over the orders: binary search of the first id after lastId, then scan. */
+    private static List<Order> findByStatusAfter(List<Order> orders, String status, Long lastId, Limit limit) {
+        int low = 0;
+        int high = orders.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (orders.get(middle).getId() <= lastId) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        List<Order> chunk = new ArrayList<>(limit.max());
+        for (int i = low; i < orders.size() && chunk.size() < limit.max(); i++) {
+            if (orders.get(i).getStatus().equals(status)) {
+                chunk.add(orders.get(i));
+            }
+        }
+        return chunk;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                return switch (method.getName()) {
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    default -> type.getSimpleName() + " (in memory)";
+                };
+            }
+            return handler.invoke(proxy, method, args);
+        });
+    }
+
+    private static Object unsupported(String methodName) {
+        throw new UnsupportedOperationException(methodName + " is not available in the in-memory repositories");
+    }
+}
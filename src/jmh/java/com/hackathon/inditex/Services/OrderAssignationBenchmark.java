@@ -0,0 +1,95 @@
+package com.hackathon.inditex.Services;
+
+import com.hackathon.inditex.Engine.*;
+import com.hackathon.inditex.Entities.Center;
+import com.hackathon.inditex.Entities.Order;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of a whole {@link OrderManagementService#orderAssignation()} run (chunked reads,
+ * engine session, result creation) with the repositories stubbed in memory.
+ *
+ * Each invocation works over a fresh backlog: orders are set back to "PENDING" and centers
+ * to their initial load before it starts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class OrderAssignationBenchmark {
+
+    @Param({IndexAssignationEngine.NAME, AssignationKernel.NAME, ParallelAssignationEngine.NAME})
+    private String engine;
+
+    @Param({"100", "10000"})
+    private int centers;
+
+    @Param({"10000", "1000000"})
+    private int orders;
+
+    @Param({"UNIFORM", "CLUSTERED"})
+    private BenchmarkData.Geography geography;
+
+    @Param({"1000"})
+    private int chunkSize;
+
+    private OrderManagementService orderManagementService;
+    private ParallelAssignationEngine parallelEngine;
+    private List<Center> centerList;
+    private List<Order> orderList;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Not enough capacity for every order, so both assigned and unassigned results are produced
+        centerList = BenchmarkData.centers(centers, geography, Math.max(1, orders / centers / 2), 1);
+        orderList = BenchmarkData.orders(orders, geography, 2);
+
+        IndexAssignationEngine indexEngine = new IndexAssignationEngine();
+        ReflectionTestUtils.setField(indexEngine, "centerSpatialIndex", new CenterSpatialIndex());
+        parallelEngine = new ParallelAssignationEngine();
+        List<AssignationEngine> engines = List.of(indexEngine, new AssignationKernel(), parallelEngine);
+
+        // The registry is left disabled, so the centers are read from the in-memory repository
+        CenterRegistry centerRegistry = new CenterRegistry();
+        ReflectionTestUtils.setField(centerRegistry, "centerRepository", InMemoryRepositories.centerRepository(centerList));
+
+        orderManagementService = new OrderManagementService();
+        ReflectionTestUtils.setField(orderManagementService, "orderRepository", InMemoryRepositories.orderRepository(orderList));
+        ReflectionTestUtils.setField(orderManagementService, "centerRepository", InMemoryRepositories.centerRepository(centerList));
+        ReflectionTestUtils.setField(orderManagementService, "centerRegistry", centerRegistry);
+        ReflectionTestUtils.setField(orderManagementService, "entityManager", InMemoryRepositories.entityManager());
+        ReflectionTestUtils.setField(orderManagementService, "transactionTemplate", InMemoryRepositories.transactionTemplate());
+        ReflectionTestUtils.setField(orderManagementService, "assignationMetrics", InMemoryRepositories.assignationMetrics());
+        ReflectionTestUtils.setField(orderManagementService, "assignationEngines", engines);
+        ReflectionTestUtils.setField(orderManagementService, "assignationEngineName", engine);
+        ReflectionTestUtils.setField(orderManagementService, "chunkSize", chunkSize);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        parallelEngine.shutdown();
+    }
+
+    @Setup(Level.Invocation)
+    public void resetBacklog() {
+        for (Order order : orderList) {
+            order.setStatus("PENDING");
+            order.setAssignedCenter(null);
+        }
+        for (Center center : centerList) {
+            center.setCurrentLoad(0);
+        }
+    }
+
+    @Benchmark
+    public void orderAssignation(Blackhole blackhole) {
+        orderManagementService.orderAssignation(blackhole::consume);
+    }
+}
@@ -0,0 +1,152 @@
+package com.hackathon.inditex.Config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Limits the number of order and center requests using the database at the same time, so that they
+ * never starve the connection pool.
+ *
+ * Every request under {@code /api/orders} and {@code /api/centers} holds a permit until its response is
+ * complete, as it may hold a pooled connection until then. There are {@code inditex.db.max-concurrency}
+ * permits for the regular requests, answered as soon as their database work is done.
+ *
+ * The streamed responses (the order exports and the NDJSON order assignations) hold their permit, and a
+ * connection, for their whole life, minutes for the large ones: they get {@code inditex.db.max-streams}
+ * permits of their own instead, so that they can never take the permits of the regular requests. Both
+ * together are kept a few less than the connections of the pool, which leaves connections to the assignation
+ * jobs and the continuous assignation running outside requests.
+ *
+ * A request waits up to {@code inditex.db.acquire-timeout} for a permit, in arrival order, and is answered
+ * 503 Service Unavailable, with a Retry-After header, if none is released meanwhile. With virtual threads
+ * ({@code spring.threads.virtual.enabled}), any number of requests can wait cheaply, instead of being bounded
+ * by the Tomcat thread pool; the limiter keeps their database work bounded by the pool.
+ */
+@Component
+public class DatabaseConcurrencyFilter extends OncePerRequestFilter {
+
+    // Autowiring the MeterRegistry bean from the ApplicationContext
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Maximum number of requests using the database at the same time
+    @Value("${inditex.db.max-concurrency:7}")
+    private int maxConcurrency;
+
+    // Maximum number of streamed responses using the database at the same time
+    @Value("${inditex.db.max-streams:2}")
+    private int maxStreams;
+
+    // Maximum time a request waits for a permit before being rejected
+    @Value("${inditex.db.acquire-timeout:2s}")
+    private Duration acquireTimeout;
+
+    private Semaphore permits;
+    private Semaphore streamPermits;
+    private Counter rejectedRequests;
+
+    /** Creates the permits and registers the meters of the limiter. */
+    @PostConstruct
+    public void bindPermits() {
+        permits = new Semaphore(maxConcurrency, true);
+        Gauge.builder("inditex.db.limiter.active", permits, semaphore -> maxConcurrency - semaphore.availablePermits())
+                .description("Requests holding a database permit")
+                .register(meterRegistry);
+        Gauge.builder("inditex.db.limiter.waiting", permits, Semaphore::getQueueLength)
+                .description("Requests waiting for a database permit")
+                .register(meterRegistry);
+        streamPermits = new Semaphore(maxStreams, true);
+        Gauge.builder("inditex.db.limiter.streams.active", streamPermits, semaphore -> maxStreams - semaphore.availablePermits())
+                .description("Streamed responses holding a database permit")
+                .register(meterRegistry);
+        Gauge.builder("inditex.db.limiter.streams.waiting", streamPermits, Semaphore::getQueueLength)
+                .description("Streamed responses waiting for a database permit")
+                .register(meterRegistry);
+        rejectedRequests = Counter.builder("inditex.db.limiter.rejected")
+                .description("Requests rejected after waiting for a database permit")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !path.startsWith("/api/orders") && !path.startsWith("/api/centers");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Semaphore permits = isStreamed(request) ? streamPermits : this.permits;
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            rejectedRequests.increment();
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Too many concurrent requests, retry later");
+            return;
+        }
+
+        AtomicBoolean released = new AtomicBoolean();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                // Streamed response: released once it is complete
+                request.getAsyncContext().addListener(new AsyncListener() {
+                    @Override
+                    public void onComplete(AsyncEvent event) {
+                        if (released.compareAndSet(false, true)) permits.release();
+                    }
+
+                    @Override
+                    public void onTimeout(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onError(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onStartAsync(AsyncEvent event) {
+                    }
+                });
+            } else if (released.compareAndSet(false, true)) {
+                permits.release();
+            }
+        }
+    }
+
+    /** Whether the request is answered with a streamed response: an order export or NDJSON order assignations. */
+    private static boolean isStreamed(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (path.equals("/api/orders/export")) return true;
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        return path.equals("/api/orders/order-assignations") && "POST".equals(request.getMethod())
+                && accept != null && accept.contains(MediaType.APPLICATION_NDJSON_VALUE);
+    }
+}
@@ -0,0 +1,95 @@
+package com.hackathon.inditex.Config;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+
+/**
+ * R2DBC (reactive) connections to the application database, used by the reactive order endpoints
+ * alongside the JDBC ones.
+ *
+ * The connections are opened to the database of {@code spring.datasource.url}, with the same credentials,
+ * so both configurations can't diverge: {@code jdbc:mysql://...} becomes {@code r2dbc:mysql://...}, and so on
+ * ({@code inditex.reactive.url} overrides it). They are pooled, at most {@code inditex.reactive.pool-size}
+ * of them, in a pool of their own: the reactive endpoints never take the JDBC connections.
+ *
+ * Only a {@link DatabaseClient} is exposed, never the pool itself: Spring Boot's JDBC data source backs off
+ * as soon as an R2DBC ConnectionFactory bean exists, and its R2DBC auto-configuration is excluded (see
+ * {@code spring.autoconfigure.exclude}) for the same reason. Hence no R2DBC transaction manager either, which
+ * would make every {@code @Transactional} method ambiguous: the reactive repositories handle their transactions
+ * on the connection.
+ */
+@Configuration
+public class ReactiveDatabaseConfig {
+
+    // Pool of the reactive connections, closed with the application context
+    private ConnectionPool connectionPool;
+
+    /**
+     * Client of the R2DBC connections to the application database, from a pool of their own.
+     *
+     * @param dataSourceProperties the JDBC data source configuration
+     * @param url the R2DBC URL, or empty to derive it from the JDBC one
+     * @param poolSize the maximum number of connections
+     * @param maxAcquireTime the maximum time waiting for a connection before failing
+     * @return the database client
+     */
+    @Bean
+    public DatabaseClient reactiveDatabaseClient(DataSourceProperties dataSourceProperties,
+                                            @Value("${inditex.reactive.url:}") String url,
+                                            @Value("${inditex.reactive.pool-size:10}") int poolSize,
+                                            @Value("${inditex.reactive.max-acquire-time:5s}") Duration maxAcquireTime) {
+        String r2dbcUrl = StringUtils.hasText(url) ? url : toR2dbcUrl(dataSourceProperties.determineUrl());
+        ConnectionFactoryOptions.Builder options = ConnectionFactoryOptions.parse(r2dbcUrl).mutate();
+        if (dataSourceProperties.determineUsername() != null) {
+            options.option(ConnectionFactoryOptions.USER, dataSourceProperties.determineUsername());
+        }
+        if (dataSourceProperties.determinePassword() != null) {
+            options.option(ConnectionFactoryOptions.PASSWORD, dataSourceProperties.determinePassword());
+        }
+
+        connectionPool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options.build()))
+                .name("inditex-reactive")
+                .initialSize(0)
+                .maxSize(poolSize)
+                .maxAcquireTime(maxAcquireTime)
+                .build());
+        return DatabaseClient.create(connectionPool);
+    }
+
+    /** Closes the reactive connections. */
+    @PreDestroy
+    public void closeConnections() {
+        if (connectionPool != null) connectionPool.dispose();
+    }
+
+    /**
+     * Converts a JDBC URL to the R2DBC URL of the same database.
+     *
+     * @param jdbcUrl the JDBC URL, e.g. {@code jdbc:mysql://mysql:3306/inditex}
+     * @return the R2DBC URL, e.g. {@code r2dbc:mysql://mysql:3306/inditex}
+     * @throws IllegalStateException if the URL is not a JDBC one
+     */
+    static String toR2dbcUrl(String jdbcUrl) {
+        if (jdbcUrl == null || !jdbcUrl.startsWith("jdbc:")) {
+            throw new IllegalStateException("Cannot derive the R2DBC URL from " + jdbcUrl + ": set inditex.reactive.url");
+        }
+        String url = jdbcUrl.substring("jdbc:".length());
+
+        // In-memory H2 databases (tests): jdbc:h2:mem:name;options -> r2dbc:h2:mem:///name;options
+        if (url.startsWith("h2:mem:")) {
+            return "r2dbc:h2:mem:///" + url.substring("h2:mem:".length());
+        }
+        return "r2dbc:" + url;
+    }
+}
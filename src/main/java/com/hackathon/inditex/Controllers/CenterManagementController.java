@@ -1,7 +1,10 @@
 package com.hackathon.inditex.Controllers;
 
+import com.hackathon.inditex.DTO.BulkResponse;
 import com.hackathon.inditex.DTO.CenterRequest;
-import com.hackathon.inditex.Entities.Center;
+import com.hackathon.inditex.DTO.CenterSummary;
+import com.hackathon.inditex.DTO.CursorPage;
+import com.hackathon.inditex.Entities.Coordinates;
 import com.hackathon.inditex.Services.CenterManagementService;
 import io.swagger.v3.oas.annotations.*;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
@@ -12,10 +15,17 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
-import java.util.List;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
 
 /**
  * REST Controller for managing logistics centers.
@@ -31,6 +41,11 @@ public class CenterManagementController {
     @Autowired
     private CenterManagementService centerManagementService;
 
+    // Columns expected in the header of the CSV center imports
+    private static final List<String> CSV_COLUMNS = List.of(
+            "name", "capacity", "status", "currentLoad", "maxCapacity", "latitude", "longitude"
+    );
+
 
     @Operation(
             summary = "Register a new logistics center",
@@ -62,19 +77,71 @@ public class CenterManagementController {
 
 
     @Operation(
-            summary = "Read all registered logistics centers",
-            description = "Returns all registered logistics centers at the time of the request"
+            summary = "Import many logistics centers at once",
+            description = "Creates a logistics center for each element of the given JSON array, or updates the "
+                    + "center already registered in the same coordinates. Invalid elements are rejected "
+                    + "individually and reported in the results"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Outcome of every center",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = BulkResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Malformed JSON array", content = @Content)
+    })
+    @PostMapping(value = "bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BulkResponse> importCenters(
+            @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    required = true,
+                    content = @Content(
+                            array = @ArraySchema(schema = @Schema(implementation = CenterRequest.class)),
+                            schema = @Schema(description = "Payloads containing the details of each center")
+                    )
+            )
+            @org.springframework.web.bind.annotation.RequestBody List<CenterRequest> centerRequests) {
+        BulkResponse bulkResponse = centerManagementService.importCenters(centerRequests);
+        return ResponseEntity.ok(bulkResponse);
+    }
+
+    @Operation(
+            summary = "Import many logistics centers at once, from CSV",
+            description = "Same as the JSON import, from a CSV body with a header row naming the columns: "
+                    + "name, capacity, status, currentLoad, maxCapacity, latitude and longitude. "
+                    + "Lines with a malformed number are rejected individually and reported in the results"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Outcome of every center",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = BulkResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Missing header column", content = @Content)
+    })
+    @PostMapping(value = "bulk", consumes = "text/csv")
+    public ResponseEntity<BulkResponse> importCentersFromCsv(InputStream inputStream) throws IOException {
+        Map<Integer, String> malformedRows = new HashMap<>();
+        List<CenterRequest> centerRequests = readCsv(inputStream, malformedRows);
+        BulkResponse bulkResponse = centerManagementService.importCenters(centerRequests, malformedRows);
+        return ResponseEntity.ok(bulkResponse);
+    }
+
+    @Operation(
+            summary = "Read the registered logistics centers, one page at a time",
+            description = "Returns the registered logistics centers, optionally filtered by status, in id ascending order. "
+                    + "When there are more centers, the URL of the next page is returned in the 'Link' header (rel=\"next\")"
     )
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Existing centers read successfully",
-                    content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = Center.class)))),
+                    content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = CenterSummary.class)))),
+            @ApiResponse(responseCode = "400", description = "Invalid status or limit", content = @Content),
             @ApiResponse(responseCode = "500", description = "Server error: No existing centers to be read",
                     content = @Content)
     })
     @GetMapping
-    public ResponseEntity<?> readAllCenters() {
-        List<Center> centerList = centerManagementService.readAllCenters();
-        return ResponseEntity.ok(centerList);
+    public ResponseEntity<List<CenterSummary>> readAllCenters(
+            @Parameter(description = "Only the centers with this status", schema = @Schema(allowableValues = {"AVAILABLE", "OCCUPIED"}))
+            @RequestParam(required = false) String status,
+            @Parameter(description = "Id of the last center of the previous page; omit it for the first page")
+            @RequestParam(required = false) Long after,
+            @Parameter(description = "Maximum number of centers of the page")
+            @RequestParam(required = false) Integer limit) {
+        CursorPage<CenterSummary> centerPage = centerManagementService.readCenters(status, after, limit);
+        return CursorPageResponses.ok(centerPage);
     }
 
 
@@ -125,4 +192,113 @@ public class CenterManagementController {
         String responseMessage = centerManagementService.deleteCenter(id);
         return ResponseEntity.ok(responseMessage);
     }
+
+
+    /**
+     * Reads the centers of a CSV center import.
+     *
+     * The first line is a header naming the columns, in any order. Fields may be quoted with double
+     * quotes (and quotes escaped by doubling them), and empty fields are read as missing values.
+     * A line with a malformed number is read as a {@code null} row, and the reason is recorded in
+     * {@code malformedRows} under its position.
+     *
+     * @param inputStream the CSV body, encoded in UTF-8
+     * @param malformedRows receives the reason of every malformed row, by position
+     * @return one CenterRequest per non-blank line after the header
+     * @throws ResponseStatusException if a header column is missing (400 BAD REQUEST)
+     */
+    private List<CenterRequest> readCsv(InputStream inputStream, Map<Integer, String> malformedRows) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+
+        String header = reader.readLine();
+        if (header == null) return List.of();
+
+        // Position of each expected column in the rows
+        List<String> headerFields = splitCsvLine(header.replace("\uFEFF", ""));
+        Map<String, Integer> columns = new HashMap<>();
+        for (String column : CSV_COLUMNS) {
+            int position = -1;
+            for (int i = 0; i < headerFields.size(); i++) {
+                if (headerFields.get(i).trim().equalsIgnoreCase(column)) position = i;
+            }
+            if (position < 0) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Missing CSV column: " + column);
+            }
+            columns.put(column, position);
+        }
+
+        List<CenterRequest> centerRequests = new ArrayList<>();
+        String line;
+        int lineNumber = 1;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) continue;
+
+            List<String> fields = splitCsvLine(line);
+            try {
+                CenterRequest centerRequest = new CenterRequest();
+                centerRequest.setName(csvField(fields, columns.get("name")));
+                centerRequest.setCapacity(csvField(fields, columns.get("capacity")));
+                centerRequest.setStatus(csvField(fields, columns.get("status")));
+                centerRequest.setCurrentLoad(csvInteger(fields, columns.get("currentLoad")));
+                centerRequest.setMaxCapacity(csvInteger(fields, columns.get("maxCapacity")));
+
+                Double latitude = csvDouble(fields, columns.get("latitude"));
+                Double longitude = csvDouble(fields, columns.get("longitude"));
+                centerRequest.setCoordinates(latitude == null && longitude == null ? null : new Coordinates(latitude, longitude));
+
+                centerRequests.add(centerRequest);
+            } catch (NumberFormatException e) {
+                malformedRows.put(centerRequests.size(), "Malformed number in CSV line " + lineNumber + ": " + e.getMessage());
+                centerRequests.add(null);
+            }
+        }
+        return centerRequests;
+    }
+
+    /** Splits a CSV line into its fields, removing the quotes of the quoted ones. */
+    private static List<String> splitCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static String csvField(List<String> fields, int position) {
+        if (position >= fields.size()) return null;
+        String value = fields.get(position).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static Integer csvInteger(List<String> fields, int position) {
+        String value = csvField(fields, position);
+        return value == null ? null : Integer.valueOf(value);
+    }
+
+    private static Double csvDouble(List<String> fields, int position) {
+        String value = csvField(fields, position);
+        return value == null ? null : Double.valueOf(value);
+    }
 }
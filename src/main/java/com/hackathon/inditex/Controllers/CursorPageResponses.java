@@ -0,0 +1,54 @@
+package com.hackathon.inditex.Controllers;
+
+import com.hackathon.inditex.DTO.CursorPage;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.List;
+
+/**
+ * Builds the responses of the list endpoints read with cursor pagination.
+ *
+ * The body is the JSON array of the items of the page. When there are more items, the URL of the
+ * next page is sent as a {@code Link: <...>; rel="next"} header: the current request URL, with the
+ * same filters and limit, and its {@code after} parameter set to the cursor of the next page.
+ */
+final class CursorPageResponses {
+
+    private CursorPageResponses() {
+    }
+
+    /**
+     * Builds the 200 OK response of a page.
+     *
+     * @param page the page read by the service
+     * @param <T> the type of the items
+     * @return the response, with the items as body and the Link header of the next page if any
+     */
+    static <T> ResponseEntity<List<T>> ok(CursorPage<T> page) {
+        return ok(page, ServletUriComponentsBuilder.fromCurrentRequest());
+    }
+
+    /**
+     * Builds the 200 OK response of a page read asynchronously, outside the request thread.
+     *
+     * @param page the page read by the service
+     * @param currentRequest the URL of the request, captured on the request thread
+     * @param <T> the type of the items
+     * @return the response, with the items as body and the Link header of the next page if any
+     */
+    static <T> ResponseEntity<List<T>> ok(CursorPage<T> page, UriComponentsBuilder currentRequest) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNext() != null) {
+            // The query string of the request is already encoded, and the cursor is a number
+            String nextPage = currentRequest
+                    .replaceQueryParam("after", page.getNext())
+                    .build(true)
+                    .toUriString();
+            response.header(HttpHeaders.LINK, "<" + nextPage + ">; rel=\"next\"");
+        }
+        return response.body(page.getItems());
+    }
+}
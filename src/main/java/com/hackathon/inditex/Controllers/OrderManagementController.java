@@ -1,10 +1,14 @@
 package com.hackathon.inditex.Controllers;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.hackathon.inditex.DTO.*;
-import com.hackathon.inditex.Entities.Center;
-import com.hackathon.inditex.Entities.Order;
+import com.hackathon.inditex.Services.AssignationJobService;
+import com.hackathon.inditex.Services.AssignationSimulator;
 import com.hackathon.inditex.Services.OrderManagementService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -12,11 +16,31 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Objects;
 
 /**
  * REST Controller for managing Orders.
@@ -29,10 +53,41 @@ import java.util.List;
 @RequestMapping("/api/orders")
 public class OrderManagementController {
 
+    // Header line of the CSV export
+    private static final String CSV_HEADER = "id,customerId,size,status,assignedCenter,latitude,longitude\n";
+
+    // Size of the buffer between the exported orders and the response
+    private static final int EXPORT_BUFFER_SIZE = 64 * 1024;
+
     // Autowiring the OrderManagementService bean from the ApplicationContext
     @Autowired
     private OrderManagementService orderManagementService;
 
+    // Autowiring the AssignationSimulator bean from the ApplicationContext
+    @Autowired
+    private AssignationSimulator assignationSimulator;
+
+    // Autowiring the AssignationJobService bean from the ApplicationContext
+    @Autowired
+    private AssignationJobService assignationJobService;
+
+    // Autowiring the ObjectMapper bean used to serialize the streamed responses
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Autowiring the task executor bean writing the streamed responses, the one Spring MVC uses for async requests
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private AsyncTaskExecutor taskExecutor;
+
+    // Time allowed to the streamed order assignations, which last as long as the run (0 for no limit)
+    @Value("${inditex.assignation.stream.timeout:0}")
+    private Duration assignationStreamTimeout;
+
+    // Time allowed to the order exports, which last as long as it takes to write every order
+    @Value("${inditex.orders.export.timeout:10m}")
+    private Duration exportTimeout;
+
     @Operation(
             summary = "Register a new order",
             description = "Creates a order with the given payload data"
@@ -60,18 +115,125 @@ public class OrderManagementController {
 
 
     @Operation(
-            summary = "Read all the registered orders",
-            description = "Returns all registered orders at the time of the request"
+            summary = "Register many orders at once",
+            description = "Creates an order for each element of the given JSON array. "
+                    + "Invalid elements are rejected individually and reported in the results"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Outcome of every order",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = BulkResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Malformed JSON array", content = @Content)
+    })
+    @PostMapping(value = "bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BulkResponse> createNewOrders(
+            @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    required = true,
+                    content = @Content(
+                            array = @ArraySchema(schema = @Schema(implementation = OrderRequest.class)),
+                            schema = @Schema(description = "Payloads containing the details of each order")
+                    )
+            )
+            @org.springframework.web.bind.annotation.RequestBody List<OrderRequest> orderRequests) {
+        BulkResponse bulkResponse = orderManagementService.createNewOrders(orderRequests);
+        return ResponseEntity.ok(bulkResponse);
+    }
+
+    @Operation(
+            summary = "Register many orders at once, from NDJSON",
+            description = "Creates an order for each line of the given NDJSON body (one OrderRequest per line). "
+                    + "Invalid orders are rejected individually and reported in the results"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Outcome of every order",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = BulkResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Malformed NDJSON line", content = @Content)
+    })
+    @PostMapping(value = "bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<BulkResponse> createNewOrdersFromNdjson(InputStream inputStream) throws IOException {
+        List<OrderRequest> orderRequests;
+        try (MappingIterator<OrderRequest> iterator = objectMapper.readerFor(OrderRequest.class).readValues(inputStream)) {
+            orderRequests = iterator.readAll();
+        } catch (JsonProcessingException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Malformed NDJSON: " + e.getOriginalMessage());
+        }
+
+        BulkResponse bulkResponse = orderManagementService.createNewOrders(orderRequests);
+        return ResponseEntity.ok(bulkResponse);
+    }
+
+    @Operation(
+            summary = "Read the registered orders, one page at a time",
+            description = "Returns the registered orders matching the given filters, in id ascending order. "
+                    + "When there are more orders, the URL of the next page is returned in the 'Link' header (rel=\"next\")"
     )
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Existing orders successfully",
-                    content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = Order.class)))),
+                    content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = OrderSummary.class)))),
+            @ApiResponse(responseCode = "400", description = "Invalid status or limit", content = @Content),
             @ApiResponse(responseCode = "500", description = "Server error: No existing orders to be read", content = @Content)
     })
     @GetMapping
-    public ResponseEntity<?> listAllOrders() {
-        List<Order> orderList = orderManagementService.readAllOrders();
-        return ResponseEntity.ok(orderList);
+    public ResponseEntity<List<OrderSummary>> listAllOrders(
+            @Parameter(description = "Only the orders with this status", schema = @Schema(allowableValues = {"PENDING", "ASSIGNED"}))
+            @RequestParam(required = false) String status,
+            @Parameter(description = "Only the orders assigned to the center with this name")
+            @RequestParam(required = false) String assignedCenter,
+            @Parameter(description = "Only the orders of this customer")
+            @RequestParam(required = false) Long customerId,
+            @Parameter(description = "Id of the last order of the previous page; omit it for the first page")
+            @RequestParam(required = false) Long after,
+            @Parameter(description = "Maximum number of orders of the page")
+            @RequestParam(required = false) Integer limit) {
+        CursorPage<OrderSummary> orderPage = orderManagementService.readOrders(status, assignedCenter, customerId, after, limit);
+        return CursorPageResponses.ok(orderPage);
+    }
+
+    @Operation(
+            summary = "Export all the registered orders",
+            description = "Streams every registered order matching the given filters, in id ascending order, "
+                    + "as CSV (with a header line) or as NDJSON (one order per line). "
+                    + "The orders are written as they are read from the database, whatever their number"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Orders exported successfully", content = {
+                    @Content(mediaType = "text/csv"),
+                    @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE, schema = @Schema(implementation = OrderSummary.class))
+            }),
+            @ApiResponse(responseCode = "400", description = "Invalid format or status", content = @Content)
+    })
+    @GetMapping("export")
+    public ResponseEntity<ResponseBodyEmitter> exportOrders(
+            @Parameter(description = "Format of the export", schema = @Schema(allowableValues = {"csv", "ndjson"}))
+            @RequestParam(defaultValue = "csv") String format,
+            @Parameter(description = "Only the orders with this status", schema = @Schema(allowableValues = {"PENDING", "ASSIGNED"}))
+            @RequestParam(required = false) String status,
+            @Parameter(description = "Only the orders assigned to the center with this name")
+            @RequestParam(required = false) String assignedCenter,
+            @Parameter(description = "Only the orders of this customer")
+            @RequestParam(required = false) Long customerId) {
+        boolean isCsv = "csv".equals(format);
+        if (!isCsv && !"ndjson".equals(format)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid format value");
+        }
+
+        StreamingResponseBody responseBody = outputStream -> {
+            // Buffered, and flushed once at the end: the export is a download, not a live feed
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), EXPORT_BUFFER_SIZE);
+            if (isCsv) writer.write(CSV_HEADER);
+            orderManagementService.exportOrders(status, assignedCenter, customerId, order -> {
+                try {
+                    writer.write(isCsv ? toCsvLine(order) : objectMapper.writeValueAsString(order));
+                    writer.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(isCsv ? new MediaType("text", "csv", StandardCharsets.UTF_8) : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"orders." + format + "\"")
+                .body(stream(responseBody, exportTimeout));
     }
 
     @Operation(
@@ -89,4 +251,181 @@ public class OrderManagementController {
         return ResponseEntity.ok(assignationResponse);
     }
 
+    @Operation(
+            summary = "Assign the 'PENDING' orders, streaming the results",
+            description = "Assign all the orders with 'PENDING' status to an available logistics Center. "
+                    + "Each order assignation is written as a JSON line (NDJSON) as soon as it is decided"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Orders assigned successfully",
+                    content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE, schema = @Schema(implementation = OrderAssignation.class))),
+            @ApiResponse(responseCode = "500", description = "No 'PENDING' orders or available logistics centers", content = @Content)
+    })
+    @PostMapping(value = "order-assignations", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<ResponseBodyEmitter> streamCenterAssignment() {
+        StreamingResponseBody responseBody = outputStream ->
+                orderManagementService.orderAssignation(orderAssignation -> {
+                    try {
+                        // One JSON document per line, sent to the client right away
+                        // (serialized to bytes first: writeValue would close the response stream)
+                        byte[] json = objectMapper.writeValueAsBytes(orderAssignation);
+                        byte[] line = Arrays.copyOf(json, json.length + 1);
+                        line[json.length] = '\n';
+                        outputStream.write(line);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(stream(responseBody, assignationStreamTimeout));
+    }
+
+    @Operation(
+            summary = "Simulate the assignation of the 'PENDING' orders",
+            description = "Run the order assignation in memory, without modifying any order or center, optionally with "
+                    + "another engine, hypothetical centers and overridden status, load or capacity of existing centers"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Orders assignation simulated successfully",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = SimulationResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid engine, hypothetical center or override", content = @Content)
+    })
+    @PostMapping("order-assignations/simulation")
+    public ResponseEntity<SimulationResponse> simulateCenterAssignment(
+            @RequestBody(required = false) SimulationRequest simulationRequest) {
+        return ResponseEntity.ok(assignationSimulator.simulate(simulationRequest));
+    }
+
+    @Operation(
+            summary = "Start a job assigning the 'PENDING' orders",
+            description = "Start assigning all the orders with 'PENDING' status to an available logistics Center in the "
+                    + "background, and return the job right away. Its URL is returned in the 'Location' header"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Assignation job started",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = AssignationJobStatus.class))),
+            @ApiResponse(responseCode = "409", description = "Another assignation job is running", content = @Content)
+    })
+    @PostMapping("order-assignations/jobs")
+    public ResponseEntity<AssignationJobStatus> startAssignationJob() {
+        AssignationJobStatus job = assignationJobService.submit();
+        return ResponseEntity.accepted()
+                .location(ServletUriComponentsBuilder.fromCurrentRequest().path("/{id}").buildAndExpand(job.getId()).toUri())
+                .body(job);
+    }
+
+    @Operation(
+            summary = "Read the progress of an assignation job",
+            description = "Returns the status of the job, the orders processed, assigned and left unassigned so far, "
+                    + "its throughput and the estimated time until it completes"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Assignation job found",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = AssignationJobStatus.class))),
+            @ApiResponse(responseCode = "404", description = "Assignation job not found", content = @Content)
+    })
+    @GetMapping("order-assignations/jobs/{id}")
+    public ResponseEntity<AssignationJobStatus> readAssignationJob(@PathVariable String id) {
+        return ResponseEntity.ok(assignationJobService.readJob(id));
+    }
+
+    @Operation(
+            summary = "Read the results of an assignation job",
+            description = "Returns the last assignment results of the job, in order id ascending order, including those of a "
+                    + "running job so far. Only the last results of a job are kept (the older ones are only counted in its status). "
+                    + "When there are (or may be) more results, the URL of the next page is returned in the 'Link' header (rel=\"next\")"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Assignation job results",
+                    content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = OrderAssignation.class)))),
+            @ApiResponse(responseCode = "400", description = "Invalid limit", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Assignation job not found", content = @Content)
+    })
+    @GetMapping("order-assignations/jobs/{id}/results")
+    public ResponseEntity<List<OrderAssignation>> readAssignationJobResults(
+            @PathVariable String id,
+            @Parameter(description = "Id of the last order of the previous page; omit it for the first page")
+            @RequestParam(required = false) Long after,
+            @Parameter(description = "Maximum number of results of the page")
+            @RequestParam(required = false) Integer limit) {
+        return CursorPageResponses.ok(assignationJobService.readResults(id, after, limit));
+    }
+
+    @Operation(
+            summary = "Cancel an assignation job",
+            description = "Stop the job before it claims its next chunk of orders. The orders already processed "
+                    + "remain assigned, and the others remain 'PENDING'"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Assignation job cancellation requested",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = AssignationJobStatus.class))),
+            @ApiResponse(responseCode = "404", description = "Assignation job not found", content = @Content)
+    })
+    @DeleteMapping("order-assignations/jobs/{id}")
+    public ResponseEntity<AssignationJobStatus> cancelAssignationJob(@PathVariable String id) {
+        return ResponseEntity.accepted().body(assignationJobService.cancelJob(id));
+    }
+
+    /** Formats an order as a line of the CSV export, in the order of {@link #CSV_HEADER} */
+    private static String toCsvLine(OrderSummary order) {
+        return order.getId() + ","
+                + Objects.toString(order.getCustomerId(), "") + ","
+                + toCsvField(order.getSize()) + ","
+                + toCsvField(order.getStatus()) + ","
+                + toCsvField(order.getAssignedCenter()) + ","
+                + Objects.toString(order.getCoordinates().getLatitude(), "") + ","
+                + Objects.toString(order.getCoordinates().getLongitude(), "");
+    }
+
+    /** Quotes a CSV text field if it contains a separator, a quote or a line break (RFC 4180) */
+    private static String toCsvField(String value) {
+        if (value == null) return "";
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    /**
+     * Writes a streamed response from the task executor, with its own async request timeout instead of the
+     * {@code spring.mvc.async.request-timeout} of the other async requests.
+     * <p>
+     * The method performs the following steps:
+     * <ol>
+     *     <li>Creates an emitter completed, or timed out, independently of the other async requests
+     *     (a timeout of 0 means none).</li>
+     *     <li>Writes the response body on the task executor, each chunk written by the body being sent to
+     *     the client right away.</li>
+     *     <li>Completes the emitter once the body is written, or with the error that interrupted it, which is
+     *     then handled like the errors of the other requests.</li>
+     * </ol>
+     *
+     * @param responseBody The response body to write.
+     * @param timeout      The time allowed to write it.
+     * @return The emitter of the response.
+     */
+    private ResponseBodyEmitter stream(StreamingResponseBody responseBody, Duration timeout) {
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter(timeout.toMillis());
+        OutputStream outputStream = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                write(new byte[]{(byte) b}, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                emitter.send(Arrays.copyOfRange(b, off, off + len));
+            }
+        };
+        taskExecutor.execute(() -> {
+            try {
+                responseBody.writeTo(outputStream);
+                emitter.complete();
+            } catch (Exception e) {
+                emitter.completeWithError(e);
+            }
+        });
+        return emitter;
+    }
 }
@@ -0,0 +1,85 @@
+package com.hackathon.inditex.Controllers;
+
+import com.hackathon.inditex.DTO.OrderRequest;
+import com.hackathon.inditex.DTO.OrderResponse;
+import com.hackathon.inditex.DTO.OrderSummary;
+import com.hackathon.inditex.Services.ReactiveOrderService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * REST Controller for creating and reading Orders without blocking, for ingestion bursts.
+ *
+ * Same payloads and rules as {@link OrderManagementController}, backed by R2DBC. The endpoints return
+ * Mono results: the request thread is released while the database works, and the response is written
+ * once the result is ready.
+ */
+
+@Tag(name="Reactive Order Endpoints", description = "Endpoints for creating and reading orders without blocking")
+@RestController
+@RequestMapping("/api/reactive/orders")
+public class ReactiveOrderController {
+
+    // Autowiring the ReactiveOrderService bean from the ApplicationContext
+    @Autowired
+    private ReactiveOrderService reactiveOrderService;
+
+    @Operation(
+            summary = "Create a new order without blocking",
+            description = "Create a new order in 'PENDING' status. Orders created at the same time are inserted together"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Order created successfully",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = OrderResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Missing id or coordinates or invalid size", content = @Content),
+            @ApiResponse(responseCode = "503", description = "Too many orders being created", content = @Content)
+    })
+    @PostMapping
+    public Mono<ResponseEntity<OrderResponse>> createNewOrder(@RequestBody OrderRequest orderRequest) {
+        return reactiveOrderService.createNewOrder(orderRequest)
+                .map(orderResponse -> ResponseEntity.status(HttpStatus.CREATED).body(orderResponse));
+    }
+
+    @Operation(
+            summary = "List the orders without blocking",
+            description = "Returns the registered orders matching the given filters, in id ascending order. "
+                    + "When there are more orders, the URL of the next page is returned in the 'Link' header (rel=\"next\")"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Existing orders successfully",
+                    content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = OrderSummary.class)))),
+            @ApiResponse(responseCode = "400", description = "Invalid status or limit", content = @Content)
+    })
+    @GetMapping
+    public Mono<ResponseEntity<List<OrderSummary>>> listAllOrders(
+            @Parameter(description = "Only the orders with this status", schema = @Schema(allowableValues = {"PENDING", "ASSIGNED"}))
+            @RequestParam(required = false) String status,
+            @Parameter(description = "Only the orders assigned to the center with this name")
+            @RequestParam(required = false) String assignedCenter,
+            @Parameter(description = "Only the orders of this customer")
+            @RequestParam(required = false) Long customerId,
+            @Parameter(description = "Id of the last order of the previous page; omit it for the first page")
+            @RequestParam(required = false) Long after,
+            @Parameter(description = "Maximum number of orders of the page")
+            @RequestParam(required = false) Integer limit) {
+        // The page is ready outside the request thread: capture its URL for the Link header now
+        UriComponentsBuilder currentRequest = ServletUriComponentsBuilder.fromCurrentRequest();
+        return reactiveOrderService.readOrders(status, assignedCenter, customerId, after, limit)
+                .map(orderPage -> CursorPageResponses.ok(orderPage, currentRequest));
+    }
+}
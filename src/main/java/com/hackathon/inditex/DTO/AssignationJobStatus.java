@@ -0,0 +1,68 @@
+package com.hackathon.inditex.DTO;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.Instant;
+
+/**
+ * DTO representing the progress of an asynchronous order assignation job.
+ * This is the payload for the assignation job endpoints.
+ */
+@Schema(description = "Data Transfer Object representing the progress of an asynchronous order assignation job")
+@Data
+@AllArgsConstructor
+public class AssignationJobStatus {
+
+    /** Job identifier */
+    @Schema(description = "Job identifier")
+    private String id;
+
+    /**
+     * Job status.
+     * Expected values:
+     * - While the orders are being assigned -> "RUNNING"
+     * - Once every pending order has been processed -> "COMPLETED"
+     * - If it has been cancelled -> "CANCELLED" (the orders processed until then remain assigned)
+     * - If the assignation has thrown an error -> "FAILED"
+     */
+    @Schema(description = "Job status", allowableValues = {"RUNNING", "COMPLETED", "CANCELLED", "FAILED"})
+    private String status;
+
+    /** Error message of a FAILED job, null otherwise */
+    @Schema(description = "Error message of a FAILED job", example = "There is no pending orders at this time")
+    private String message;
+
+    /** Time the job has been submitted */
+    @Schema(description = "Time the job has been submitted")
+    private Instant startedAt;
+
+    /** Time the job has finished, null while it is running */
+    @Schema(description = "Time the job has finished")
+    private Instant finishedAt;
+
+    /** Number of PENDING orders when the job started, null until they are counted */
+    @Schema(description = "Number of PENDING orders when the job started")
+    private Long pendingOrders;
+
+    /** Number of orders processed so far */
+    @Schema(description = "Number of orders processed so far")
+    private int processedOrders;
+
+    /** Number of orders assigned so far */
+    @Schema(description = "Number of orders assigned so far")
+    private int assignedOrders;
+
+    /** Number of orders processed so far that remain PENDING (centers full or no center supporting them) */
+    @Schema(description = "Number of orders processed so far that remain PENDING")
+    private int unassignedOrders;
+
+    /** Orders processed per second since the job started */
+    @Schema(description = "Orders processed per second since the job started")
+    private double throughput;
+
+    /** Estimated seconds until the job completes, null when it is not running or nothing has been processed yet */
+    @Schema(description = "Estimated seconds until the job completes")
+    private Long etaSeconds;
+}
@@ -0,0 +1,29 @@
+package com.hackathon.inditex.DTO;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * DTO representing the outcome of a bulk request, with one result per row.
+ * This is the response for the bulk ingestion POST endpoints.
+ */
+@Schema(description = "Data Transfer Object representing the outcome of a bulk request")
+@Data
+@AllArgsConstructor
+public class BulkResponse {
+
+    /** Number of rows created or updated */
+    @Schema(description = "Number of rows created or updated")
+    private int accepted;
+
+    /** Number of rows rejected */
+    @Schema(description = "Number of rows rejected")
+    private int rejected;
+
+    /** Outcome of every row, in the order of the request */
+    @Schema(description = "Outcome of every row, in the order of the request")
+    private List<BulkResult> results;
+}
@@ -0,0 +1,36 @@
+package com.hackathon.inditex.DTO;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * DTO representing the outcome of a single row of a bulk request.
+ * This is the payload for the BulkResponse DTO.
+ */
+@Schema(description = "Data Transfer Object representing the outcome of a single row of a bulk request")
+@Data
+@AllArgsConstructor
+public class BulkResult {
+
+    /** Position of the row in the request, starting at 0 */
+    @Schema(description = "Position of the row in the request, starting at 0")
+    private Integer index;
+
+    /**
+     * Identifier of the created or updated entity.
+     * Expected values:
+     * - If row accepted -> id of the entity
+     * - If row rejected -> null
+     */
+    @Schema(description = "Identifier of the created or updated entity")
+    private Long id;
+
+    /** Outcome of the row. Expected values: "CREATED", "UPDATED" or "REJECTED" */
+    @Schema(description = "Outcome of the row", allowableValues = {"CREATED", "UPDATED", "REJECTED"})
+    private String status;
+
+    /** Confirmation message, or the reason why the row has been rejected */
+    @Schema(description = "Confirmation message, or the reason why the row has been rejected")
+    private String message;
+}
@@ -0,0 +1,29 @@
+package com.hackathon.inditex.DTO;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+/**
+ * DTO representing the changes to a registered center in a what-if scenario.
+ * Only the non-null attributes are overridden. This is the payload for the SimulationRequest DTO.
+ */
+@Schema(description = "Data Transfer Object representing the changes to a registered center in a what-if scenario")
+@Data
+public class CenterOverride {
+
+    /** Identifier of the registered center */
+    @Schema(description = "Identifier of the registered center")
+    private Long centerId;
+
+    /** Center status. Expected values: "AVAILABLE" or "OCCUPIED" */
+    @Schema(description = "Center status", allowableValues = {"AVAILABLE", "OCCUPIED"})
+    private String status;
+
+    /** Number of orders the center is handling. Expected value: currentLoad <= maxCapacity */
+    @Schema(description = "Center current load of orders")
+    private Integer currentLoad;
+
+    /** Maximum number of orders the center can handle */
+    @Schema(description = "Center maximum order capacity")
+    private Integer maxCapacity;
+}
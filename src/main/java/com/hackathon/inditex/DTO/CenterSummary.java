@@ -0,0 +1,56 @@
+package com.hackathon.inditex.DTO;
+
+import com.hackathon.inditex.Entities.Center;
+import com.hackathon.inditex.Entities.Coordinates;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * DTO representing a logistics center in the center list.
+ * Serialized with the same attributes as the Center entity.
+ */
+@Schema(description = "Data Transfer Object representing a logistics center in the center list")
+@Data
+@AllArgsConstructor
+public class CenterSummary {
+
+    /** Unique center identifier */
+    @Schema(description = "Unique center identifier")
+    private Long id;
+
+    /** Name of the center */
+    @Schema(description = "Name of the center")
+    private String name;
+
+    /** Order sizes supported by the center, e.g. "BMS" */
+    @Schema(description = "Order sizes supported by the center")
+    private String capacity;
+
+    /** Center status. Expected values: "AVAILABLE" or "OCCUPIED" */
+    @Schema(description = "Center status", allowableValues = {"AVAILABLE", "OCCUPIED"})
+    private String status;
+
+    /** Number of orders currently assigned to the center */
+    @Schema(description = "Number of orders currently assigned to the center")
+    private Integer currentLoad;
+
+    /** Maximum number of orders the center can take */
+    @Schema(description = "Maximum number of orders the center can take")
+    private Integer maxCapacity;
+
+    /** Center coordinates location */
+    @Schema(description = "Center coordinates location")
+    private Coordinates coordinates;
+
+    /**
+     * Builds the summary of a center.
+     *
+     * @param center the center, owned by the caller
+     * @return the summary, sharing the coordinates of the center
+     */
+    public static CenterSummary of(Center center) {
+        return new CenterSummary(center.getId(), center.getName(), center.getCapacity(), center.getStatus(),
+                center.getCurrentLoad(), center.getMaxCapacity(), center.getCoordinates());
+    }
+}
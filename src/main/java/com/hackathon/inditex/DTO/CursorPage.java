@@ -0,0 +1,29 @@
+package com.hackathon.inditex.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * One page of a list read with cursor pagination: the items with an id greater than the
+ * requested cursor, in id ascending order.
+ * The controllers return the items as the response body and the next cursor as a Link header.
+ *
+ * @param <T> the type of the items
+ */
+@Data
+@AllArgsConstructor
+public class CursorPage<T> {
+
+    /** Items of the page, in id ascending order */
+    private List<T> items;
+
+    /**
+     * Cursor of the next page, to be sent as the {@code after} parameter.
+     * Expected values:
+     * - If there are more items -> id of the last item of the page
+     * - If this is the last page -> null
+     */
+    private Long next;
+}
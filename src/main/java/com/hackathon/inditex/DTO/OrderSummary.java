@@ -0,0 +1,40 @@
+package com.hackathon.inditex.DTO;
+
+import com.hackathon.inditex.Entities.Coordinates;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * DTO representing an order in the order list, read straight from the database columns
+ * without loading the Order entity. Serialized with the same attributes as the entity.
+ */
+@Schema(description = "Data Transfer Object representing an order in the order list")
+@Data
+@AllArgsConstructor
+public class OrderSummary {
+
+    /** Unique order identifier */
+    @Schema(description = "Unique order identifier")
+    private Long id;
+
+    /** Customer identification number */
+    @Schema(description = "Customer identification number")
+    private Long customerId;
+
+    /** Order size. Expected values: "S", "M" or "B" */
+    @Schema(description = "Order size", allowableValues = {"S", "M", "B"})
+    private String size;
+
+    /** Order status. Expected values: "PENDING" or "ASSIGNED" */
+    @Schema(description = "Order status", allowableValues = {"PENDING", "ASSIGNED"})
+    private String status;
+
+    /** Name of the assigned logistics center, null while the order is PENDING */
+    @Schema(description = "Name of the assigned logistics center")
+    private String assignedCenter;
+
+    /** Order coordinates location */
+    @Schema(description = "Order coordinates location")
+    private Coordinates coordinates;
+}
@@ -0,0 +1,36 @@
+package com.hackathon.inditex.DTO;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * DTO representing a what-if scenario of the order assignation: changes applied, in memory only,
+ * to the registered centers before simulating the assignation of the PENDING orders.
+ * This is the payload for the assignation simulation POST endpoint.
+ */
+@Schema(description = "Data Transfer Object representing a what-if scenario of the order assignation")
+@Data
+public class SimulationRequest {
+
+    /**
+     * Name of the assignation engine to simulate.
+     * Expected values: "index", "kernel", "parallel" or "optimal"; null for the configured one.
+     */
+    @Schema(description = "Assignation engine to simulate, the configured one if omitted",
+            allowableValues = {"index", "kernel", "parallel", "optimal"})
+    private String engine;
+
+    /** Centers that don't exist, added to the scenario. They get negative ids, from -1 on, in the order of the list */
+    @Schema(description = "Hypothetical centers added to the scenario, with ids -1, -2, ... in the order of the list")
+    private List<CenterRequest> hypotheticalCenters;
+
+    /** Status, load or maximum capacity overrides of registered centers */
+    @Schema(description = "Status, load or maximum capacity overrides of registered centers")
+    private List<CenterOverride> overrides;
+
+    /** Whether the outcome of every order is returned along with the statistics (true by default) */
+    @Schema(description = "Whether the outcome of every order is returned along with the statistics", defaultValue = "true")
+    private Boolean includeAssignations;
+}
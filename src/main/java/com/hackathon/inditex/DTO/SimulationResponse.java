@@ -0,0 +1,32 @@
+package com.hackathon.inditex.DTO;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * DTO representing the outcome of a simulated order assignation: what the order assignation
+ * would do with the given scenario, without modifying any order or center.
+ * This is the payload for the assignation simulation POST endpoint.
+ */
+@Schema(description = "Data Transfer Object representing the outcome of a simulated order assignation")
+@Data
+@AllArgsConstructor
+public class SimulationResponse {
+
+    /** Aggregate outcome of the simulation */
+    @Schema(description = "Aggregate outcome of the simulation")
+    private SimulationStats stats;
+
+    /** Centers which would take orders, with their resulting load */
+    @Schema(description = "Centers which would take orders, with their resulting load")
+    private List<CenterSummary> centers;
+
+    /** Outcome of every PENDING order, empty if not requested */
+    @Schema(description = "Outcome of every PENDING order, empty if not requested")
+    @JsonProperty("processed-orders")
+    private List<OrderAssignation> processedOrders;
+}
@@ -0,0 +1,51 @@
+package com.hackathon.inditex.DTO;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * DTO representing the aggregate outcome of a simulated order assignation.
+ * This is the payload for the SimulationResponse DTO.
+ */
+@Schema(description = "Data Transfer Object representing the aggregate outcome of a simulated order assignation")
+@Data
+@AllArgsConstructor
+public class SimulationStats {
+
+    /** Name of the simulated assignation engine */
+    @Schema(description = "Name of the simulated assignation engine")
+    private String engine;
+
+    /** Number of PENDING orders of the simulation */
+    @Schema(description = "Number of PENDING orders of the simulation")
+    private int pendingOrders;
+
+    /** Number of orders the simulation assigns */
+    @Schema(description = "Number of orders the simulation assigns")
+    private int assignedOrders;
+
+    /** Number of orders left PENDING because all the centers supporting them are at maximum capacity */
+    @Schema(description = "Number of orders left PENDING because all the centers supporting them are at maximum capacity")
+    private int fullOrders;
+
+    /** Number of orders left PENDING because no available center supports their size */
+    @Schema(description = "Number of orders left PENDING because no available center supports their size")
+    private int unsupportedOrders;
+
+    /** Sum of the distances from the assigned orders to their centers (in km) */
+    @Schema(description = "Sum of the distances from the assigned orders to their centers (in km)")
+    private double totalDistance;
+
+    /** Average distance from the assigned orders to their centers (in km), null if none is assigned */
+    @Schema(description = "Average distance from the assigned orders to their centers (in km)")
+    private Double averageDistance;
+
+    /** Longest distance from an assigned order to its center (in km), null if none is assigned */
+    @Schema(description = "Longest distance from an assigned order to its center (in km)")
+    private Double maxDistance;
+
+    /** Time taken by the simulation, in milliseconds */
+    @Schema(description = "Time taken by the simulation, in milliseconds")
+    private long durationMillis;
+}
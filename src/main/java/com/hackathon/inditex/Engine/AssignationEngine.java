@@ -0,0 +1,29 @@
+package com.hackathon.inditex.Engine;
+
+import com.hackathon.inditex.Entities.Center;
+
+import java.util.List;
+
+/**
+ * Strategy used by the order assignation to choose the logistics center of each pending order.
+ *
+ * The engine used by {@code OrderManagementService#orderAssignation()} is selected with the
+ * {@code inditex.assignation.engine} property, matching the {@link #name()} of the engine.
+ */
+public interface AssignationEngine {
+
+    /**
+     * Name used to select this engine in the {@code inditex.assignation.engine} property.
+     *
+     * @return the engine name
+     */
+    String name();
+
+    /**
+     * Prepares an assignation run over the given centers.
+     *
+     * @param centers the "AVAILABLE" centers orders can be assigned to
+     * @return a session holding the state of the run
+     */
+    AssignationSession open(List<Center> centers);
+}
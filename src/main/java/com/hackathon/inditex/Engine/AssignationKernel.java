@@ -0,0 +1,243 @@
+package com.hackathon.inditex.Engine;
+
+import com.hackathon.inditex.Entities.Center;
+import com.hackathon.inditex.Entities.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Allocation-free assignation engine working over a structure-of-arrays snapshot of the centers.
+ *
+ * Opening a session copies the centers into primitive arrays (unit vectors of the coordinates,
+ * loads, maximum capacities and capacity bitmasks) plus one bucket of candidate positions per order
+ * size. Candidates are removed from the buckets as soon as they are full, so each order scans only the
+ * centers that can take it, and the nearest-center search does not allocate any object. The chosen
+ * positions are mapped back to the {@link Center} entities.
+ *
+ * Candidates are ranked by the dot product of their unit vector with the order's one: the larger
+ * the dot product, the shorter the chord and the great-circle distance (see {@link GeoDistance}).
+ * That takes three multiplications per candidate instead of the trigonometric functions of the
+ * Haversine formula, which is only needed for the distance reported for the chosen center.
+ */
+@Component
+public class AssignationKernel implements AssignationEngine {
+
+    /** Name of this engine in the {@code inditex.assignation.engine} property */
+    public static final String NAME = "kernel";
+
+    // Status of the centers that can take orders
+    private static final String AVAILABLE = "AVAILABLE";
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public AssignationSession open(List<Center> centers) {
+        return new Snapshot(centers);
+    }
+
+    /**
+     * Primitive arrays snapshot of the centers of a run.
+     *
+     * Centers are identified by their position in the arrays. Besides the {@link AssignationSession}
+     * methods, the positions, coordinates and loads are available to the other engines of this package
+     * that build on the snapshot (see {@link ParallelAssignationEngine} and {@link OptimalAssignationEngine}).
+     */
+    static final class Snapshot implements AssignationSession {
+
+        final Center[] centers;
+        final long[] ids;
+        // Unit vectors of the center coordinates
+        final double[] xs;
+        final double[] ys;
+        final double[] zs;
+        private final int[] loads;
+        private final int[] maxCapacities;
+        private final byte[] capacityMasks;
+
+        // Per order size: positions of the centers that support it and still have free capacity,
+        // stored in the first bucketSizes[slot] elements of buckets[slot]
+        private final int[][] buckets;
+        private final int[] bucketSizes;
+        // Per order size: index of every center inside buckets[slot]
+        private final int[][] bucketIndexes;
+
+        // Number of centers supporting each size, regardless of their load
+        private final int[] supportingCount = new int[SizeMask.SIZES];
+
+        Snapshot(List<Center> centerList) {
+            List<Center> valid = new ArrayList<>(centerList.size());
+            for (Center center : centerList) {
+                if (center.getCoordinates() != null
+                        && center.getCoordinates().getLatitude() != null
+                        && center.getCoordinates().getLongitude() != null) {
+                    valid.add(center);
+                }
+            }
+
+            int size = valid.size();
+            centers = valid.toArray(new Center[0]);
+            ids = new long[size];
+            xs = new double[size];
+            ys = new double[size];
+            zs = new double[size];
+            loads = new int[size];
+            maxCapacities = new int[size];
+            capacityMasks = new byte[size];
+            buckets = new int[SizeMask.SIZES][size];
+            bucketSizes = new int[SizeMask.SIZES];
+            bucketIndexes = new int[SizeMask.SIZES][size];
+
+            for (int c = 0; c < size; c++) {
+                Center center = centers[c];
+                ids[c] = center.getId();
+                double[] point = GeoDistance.toUnitVector(
+                        center.getCoordinates().getLatitude(), center.getCoordinates().getLongitude());
+                xs[c] = point[0];
+                ys[c] = point[1];
+                zs[c] = point[2];
+                loads[c] = center.getCurrentLoad() != null ? center.getCurrentLoad() : 0;
+                maxCapacities[c] = center.getMaxCapacity() != null ? center.getMaxCapacity() : 0;
+                capacityMasks[c] = center.getCapacityMask();
+
+                for (int slot = 0; slot < SizeMask.SIZES; slot++) {
+                    if ((capacityMasks[c] & (1 << slot)) != 0) supportingCount[slot]++;
+                }
+                if (hasCapacity(c)) {
+                    addToBuckets(c);
+                }
+            }
+        }
+
+        @Override
+        public boolean supports(byte sizeMask) {
+            int slot = SizeMask.slot(sizeMask);
+            return slot >= 0 && supportingCount[slot] > 0;
+        }
+
+        @Override
+        public Center assign(Order order) {
+            int slot = SizeMask.slot(order.getSizeMask());
+            if (slot < 0) return null;
+
+            // Unit vector of the order, computed inline to avoid allocating an array per order
+            double latitude = Math.toRadians(order.getCoordinates().getLatitude());
+            double longitude = Math.toRadians(order.getCoordinates().getLongitude());
+            double cosLatitude = Math.cos(latitude);
+            int best = nearest(slot, cosLatitude * Math.cos(longitude), cosLatitude * Math.sin(longitude), Math.sin(latitude));
+            if (best < 0) return null;
+
+            reserve(best);
+            return centers[best];
+        }
+
+        /**
+         * Returns the positions of the centers supporting the given size which still have free capacity.
+         *
+         * @param slot the order size slot (see {@link SizeMask#slot})
+         * @return a copy of the positions, in no particular order
+         */
+        int[] available(int slot) {
+            return Arrays.copyOf(buckets[slot], bucketSizes[slot]);
+        }
+
+        /** Checks whether the center at the given position still has free capacity. */
+        boolean hasCapacity(int c) {
+            return loads[c] < maxCapacities[c];
+        }
+
+        /** Returns the number of orders the center at the given position can still take. */
+        int freeCapacity(int c) {
+            return Math.max(0, maxCapacities[c] - loads[c]);
+        }
+
+        /**
+         * Scans the bucket of the given size for the center whose unit vector has the largest dot
+         * product with the order's (x, y, z) unit vector, i.e. the closest one.
+         * Ties are resolved in favour of the center with the lowest id.
+         *
+         * @return the position of the closest center, or -1 if the bucket is empty
+         */
+        int nearest(int slot, double x, double y, double z) {
+            int[] bucket = buckets[slot];
+            int bucketSize = bucketSizes[slot];
+
+            int best = -1;
+            double bestDot = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i < bucketSize; i++) {
+                int c = bucket[i];
+                double dot = xs[c] * x + ys[c] * y + zs[c] * z;
+                if (dot > bestDot || (dot == bestDot && ids[c] < ids[best])) {
+                    best = c;
+                    bestDot = dot;
+                }
+            }
+            return best;
+        }
+
+        @Override
+        public void refresh(Center center) {
+            int c = position(center.getId());
+            if (c < 0) return;
+
+            boolean hadCapacity = hasCapacity(c);
+            loads[c] = center.getCurrentLoad() != null ? center.getCurrentLoad() : 0;
+            maxCapacities[c] = AVAILABLE.equals(center.getStatus()) && center.getMaxCapacity() != null
+                    ? center.getMaxCapacity() : 0;
+
+            if (hadCapacity && !hasCapacity(c)) {
+                removeFromBuckets(c);
+            } else if (!hadCapacity && hasCapacity(c)) {
+                addToBuckets(c);
+            }
+        }
+
+        /**
+         * Returns the position of a center in the arrays.
+         *
+         * @param id the ID of the center
+         * @return its position, or -1 if the center is not part of the snapshot
+         */
+        int position(long id) {
+            for (int c = 0; c < ids.length; c++) {
+                if (ids[c] == id) return c;
+            }
+            return -1;
+        }
+
+        /** Reserves one unit of capacity of the given center, dropping it from its buckets once full. */
+        void reserve(int c) {
+            loads[c]++;
+            if (!hasCapacity(c)) {
+                removeFromBuckets(c);
+            }
+        }
+
+        private void addToBuckets(int c) {
+            for (int slot = 0; slot < SizeMask.SIZES; slot++) {
+                if ((capacityMasks[c] & (1 << slot)) == 0) continue;
+
+                bucketIndexes[slot][c] = bucketSizes[slot];
+                buckets[slot][bucketSizes[slot]++] = c;
+            }
+        }
+
+        private void removeFromBuckets(int c) {
+            for (int slot = 0; slot < SizeMask.SIZES; slot++) {
+                if ((capacityMasks[c] & (1 << slot)) == 0) continue;
+
+                // Swap the center with the last element of the bucket and shrink it
+                int[] bucket = buckets[slot];
+                int index = bucketIndexes[slot][c];
+                int last = bucket[--bucketSizes[slot]];
+                bucket[index] = last;
+                bucketIndexes[slot][last] = index;
+            }
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.hackathon.inditex.Engine;
+
+import com.hackathon.inditex.Entities.Center;
+import com.hackathon.inditex.Entities.Order;
+
+import java.util.List;
+
+/**
+ * State of a single assignation run, created by an {@link AssignationEngine}.
+ *
+ * The session keeps its own copy of the center loads: assigning an order reserves one unit of
+ * capacity of the chosen center within the session, but the {@link Center} entities are not modified.
+ */
+public interface AssignationSession {
+
+    /**
+     * Checks whether any center of the run supports the given order size, regardless of its load.
+     *
+     * @param sizeMask the order size bitmask (see {@link SizeMask})
+     * @return {@code true} if at least one center accepts that size
+     */
+    boolean supports(byte sizeMask);
+
+    /**
+     * Chooses the closest center which supports the order size and still has free capacity,
+     * and reserves one unit of its capacity.
+     *
+     * @param order the pending order to assign
+     * @return the chosen center, or {@code null} if no center can take the order
+     */
+    Center assign(Order order);
+
+    /**
+     * Replaces the load and maximum capacity the session keeps for a center with those of the
+     * given center, e.g. once the database has shown that another assignation took part of its
+     * capacity. A center which is no longer "AVAILABLE" can't take any other order of the session.
+     *
+     * @param center the current state of a center of the session
+     */
+    void refresh(Center center);
+
+    /**
+     * Assigns every order of a chunk, in the given order.
+     *
+     * @param orders the pending orders to assign
+     * @return the chosen center for each order (same positions as orders), {@code null} for the orders
+     *         no center can take
+     */
+    default Center[] assignAll(List<Order> orders) {
+        Center[] assignedCenters = new Center[orders.size()];
+        for (int i = 0; i < assignedCenters.length; i++) {
+            assignedCenters[i] = assign(orders.get(i));
+        }
+        return assignedCenters;
+    }
+}
@@ -0,0 +1,129 @@
+package com.hackathon.inditex.Engine;
+
+/**
+ * Immutable k-d tree over the unit vectors of some centers of a {@link AssignationKernel.Snapshot},
+ * safe to query from several threads. Used to look up the nearest candidates of the orders by the
+ * {@link ParallelAssignationEngine} and the {@link OptimalAssignationEngine}.
+ *
+ * The tree is stored implicitly in an array of center positions: the node of the range [low, high)
+ * is its middle element, which splits the range on the x, y or z axis depending on the depth.
+ */
+final class CandidateTree {
+
+    private final int[] nodes;
+    private final double[][] axes;
+    private final long[] ids;
+
+    CandidateTree(int[] positions, AssignationKernel.Snapshot snapshot) {
+        nodes = positions;
+        axes = new double[][]{snapshot.xs, snapshot.ys, snapshot.zs};
+        ids = snapshot.ids;
+        build(0, nodes.length, 0);
+    }
+
+    /**
+     * Finds the nearest centers to a point, ranked by squared chord and then by id.
+     *
+     * @param point the unit vector of the point
+     * @param count the maximum number of centers to return
+     * @return the positions of the nearest centers, closest first
+     */
+    int[] nearest(double[] point, int count) {
+        Search search = new Search(point, Math.min(count, nodes.length));
+        if (search.positions.length > 0) {
+            search(search, 0, nodes.length, 0);
+        }
+        return search.positions;
+    }
+
+    private void build(int low, int high, int axis) {
+        if (high - low <= 1) return;
+
+        int middle = (low + high) >>> 1;
+        select(low, high - 1, middle, axes[axis]);
+        build(low, middle, (axis + 1) % 3);
+        build(middle + 1, high, (axis + 1) % 3);
+    }
+
+    /** Quickselect: moves the k-th smallest value of [low, high] to k, lower values before and higher after. */
+    private void select(int low, int high, int k, double[] values) {
+        while (low < high) {
+            double pivot = values[nodes[(low + high) >>> 1]];
+            int i = low;
+            int j = high;
+            while (i <= j) {
+                while (values[nodes[i]] < pivot) i++;
+                while (values[nodes[j]] > pivot) j--;
+                if (i <= j) {
+                    int swap = nodes[i];
+                    nodes[i++] = nodes[j];
+                    nodes[j--] = swap;
+                }
+            }
+
+            if (k <= j) {
+                high = j;
+            } else if (k >= i) {
+                low = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private void search(Search search, int low, int high, int axis) {
+        if (low >= high) return;
+
+        int middle = (low + high) >>> 1;
+        int c = nodes[middle];
+        double[] point = search.point;
+        search.offer(c, GeoDistance.chordSquared(point[0], point[1], point[2], axes[0][c], axes[1][c], axes[2][c]));
+
+        // Visit the side of the point first, and the other one only if it may hold a closer center
+        double difference = point[axis] - axes[axis][c];
+        int next = (axis + 1) % 3;
+        if (difference < 0) {
+            search(search, low, middle, next);
+            if (difference * difference <= search.worst()) search(search, middle + 1, high, next);
+        } else {
+            search(search, middle + 1, high, next);
+            if (difference * difference <= search.worst()) search(search, low, middle, next);
+        }
+    }
+
+    /** Bounded list of the nearest centers found so far, sorted by distance and then by id. */
+    private final class Search {
+
+        private final double[] point;
+        private final int[] positions;
+        private final double[] distances;
+        private int size;
+
+        Search(double[] point, int count) {
+            this.point = point;
+            this.positions = new int[count];
+            this.distances = new double[count];
+        }
+
+        double worst() {
+            return size < positions.length ? Double.POSITIVE_INFINITY : distances[size - 1];
+        }
+
+        void offer(int c, double distance) {
+            if (size == positions.length && !closer(distance, c, size - 1)) return;
+
+            int i = size < positions.length ? size++ : size - 1;
+            while (i > 0 && closer(distance, c, i - 1)) {
+                positions[i] = positions[i - 1];
+                distances[i] = distances[i - 1];
+                i--;
+            }
+            positions[i] = c;
+            distances[i] = distance;
+        }
+
+        private boolean closer(double distance, int c, int i) {
+            return distance < distances[i] || (distance == distances[i] && ids[c] < ids[positions[i]]);
+        }
+    }
+}
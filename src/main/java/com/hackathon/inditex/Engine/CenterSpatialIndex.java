@@ -0,0 +1,439 @@
+package com.hackathon.inditex.Engine;
+
+import com.hackathon.inditex.Entities.Center;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * In-memory spatial index over the "AVAILABLE" logistics centers.
+ *
+ * Centers are partitioned into one bucket per order size (S, M, B): a center is present in the bucket
+ * of every size its capacity supports. Each bucket is a k-d tree built over the centers' coordinates
+ * projected on the unit sphere (x, y, z). The straight-line (chord) distance between two unit vectors
+ * grows monotonically with the great-circle distance (see {@link GeoDistance}), so the nearest center
+ * in a bucket is also the nearest one according to the Haversine formula.
+ *
+ * Every node knows whether its subtree still holds a center with free capacity (currentLoad below
+ * maxCapacity), which allows the nearest-center search to skip whole branches of full centers. Once
+ * full centers make up half of a bucket, the bucket is rebuilt without them, so an order only walks
+ * through viable candidates of its own size. The index is updated incrementally as loads change during
+ * an assignation run and when centers are created, updated or deleted: the changes made outside the run are
+ * merged into the loads it has reserved (see {@link #merge(Center, int)}).
+ */
+@Component
+public class CenterSpatialIndex {
+
+    // Status of the centers kept in the index
+    private static final String INDEXED_STATUS = "AVAILABLE";
+
+    // Full nodes a bucket tolerates before being compacted, whatever its size
+    private static final int MIN_COMPACTION_THRESHOLD = 16;
+
+    /**
+     * Indexed center along with its own copy of the load values, so the buckets can be queried
+     * without touching the entity. Shared by the nodes of every bucket the center belongs to.
+     */
+    private static final class Entry {
+        final Center center;
+        final long id;
+        final double x;
+        final double y;
+        final double z;
+        final byte capacityMask;
+        int currentLoad;
+        int maxCapacity;
+        boolean removed;
+        // Node of the entry in each bucket (null if it isn't there)
+        final Node[] nodes = new Node[SizeMask.SIZES];
+
+        Entry(Center center) {
+            double[] point = GeoDistance.toUnitVector(center.getCoordinates().getLatitude(), center.getCoordinates().getLongitude());
+            this.center = center;
+            this.id = center.getId();
+            this.x = point[0];
+            this.y = point[1];
+            this.z = point[2];
+            this.capacityMask = center.getCapacityMask();
+            this.currentLoad = center.getCurrentLoad() != null ? center.getCurrentLoad() : 0;
+            this.maxCapacity = center.getMaxCapacity() != null ? center.getMaxCapacity() : 0;
+        }
+
+        boolean isFree() {
+            return !removed && currentLoad < maxCapacity;
+        }
+
+        double coordinate(int axis) {
+            return axis == 0 ? x : axis == 1 ? y : z;
+        }
+    }
+
+    /** Node of a bucket k-d tree. */
+    private static final class Node {
+        final Entry entry;
+        final int axis;
+        // Whether this node alone / any node of its subtree has free capacity
+        boolean free;
+        boolean subtreeFree;
+        Node left;
+        Node right;
+        Node parent;
+
+        Node(Entry entry, int axis) {
+            this.entry = entry;
+            this.axis = axis;
+            this.free = entry.isFree();
+        }
+
+        void computeSubtreeFree() {
+            subtreeFree = free
+                    || (left != null && left.subtreeFree)
+                    || (right != null && right.subtreeFree);
+        }
+    }
+
+    /** Mutable holder for the best candidate found during a nearest-center search. */
+    private static final class Search {
+        final double x;
+        final double y;
+        final double z;
+        Entry best;
+        double bestDistance = Double.POSITIVE_INFINITY;
+
+        Search(double[] point) {
+            this.x = point[0];
+            this.y = point[1];
+            this.z = point[2];
+        }
+    }
+
+    /** k-d tree of the centers supporting a single order size. */
+    private static final class Bucket {
+        final int slot;
+        Node root;
+        // Nodes in the tree, and how many of them are full or removed
+        int size;
+        int fullCount;
+        // Nodes inserted since the last build, used to keep the tree balanced
+        int insertsSinceBuild;
+
+        Bucket(int slot) {
+            this.slot = slot;
+        }
+
+        /** Rebuilds the tree with the entries which support the bucket size and have free capacity. */
+        void build(Collection<Entry> entries) {
+            List<Entry> candidates = new ArrayList<>();
+            for (Entry entry : entries) {
+                entry.nodes[slot] = null;
+                if ((entry.capacityMask & (1 << slot)) != 0 && entry.isFree()) {
+                    candidates.add(entry);
+                }
+            }
+            root = buildBalanced(candidates, 0, candidates.size(), 0, null);
+            size = candidates.size();
+            fullCount = 0;
+            insertsSinceBuild = 0;
+        }
+
+        /** Builds a balanced subtree from entries[from, to) splitting on the median of the given axis. */
+        private Node buildBalanced(List<Entry> entries, int from, int to, int axis, Node parent) {
+            if (from >= to) return null;
+
+            entries.subList(from, to).sort(Comparator.comparingDouble(e -> e.coordinate(axis)));
+            int median = (from + to) >>> 1;
+
+            Node node = new Node(entries.get(median), axis);
+            node.parent = parent;
+            node.entry.nodes[slot] = node;
+
+            int nextAxis = (axis + 1) % 3;
+            node.left = buildBalanced(entries, from, median, nextAxis, node);
+            node.right = buildBalanced(entries, median + 1, to, nextAxis, node);
+            node.computeSubtreeFree();
+            return node;
+        }
+
+        /** Inserts a new leaf for the given entry and updates the flags along its path. */
+        void insert(Entry entry) {
+            Node parent = null;
+            Node current = root;
+            boolean goLeft = false;
+            while (current != null) {
+                parent = current;
+                goLeft = entry.coordinate(current.axis) < current.entry.coordinate(current.axis);
+                current = goLeft ? current.left : current.right;
+            }
+
+            Node node = new Node(entry, parent == null ? 0 : (parent.axis + 1) % 3);
+            node.parent = parent;
+            if (parent == null) {
+                root = node;
+            } else if (goLeft) {
+                parent.left = node;
+            } else {
+                parent.right = node;
+            }
+            entry.nodes[slot] = node;
+
+            size++;
+            if (!node.free) fullCount++;
+            insertsSinceBuild++;
+            propagate(node);
+        }
+
+        /** Re-evaluates whether the node has free capacity after its entry has changed. */
+        void refresh(Node node) {
+            boolean free = node.entry.isFree();
+            if (free == node.free) return;
+
+            node.free = free;
+            fullCount += free ? -1 : 1;
+            propagate(node);
+        }
+
+        /** Propagates the subtree flags from the given node up to the root. */
+        private void propagate(Node node) {
+            for (Node current = node; current != null; current = current.parent) {
+                boolean subtreeFree = current.subtreeFree;
+                current.computeSubtreeFree();
+                if (current != node && current.subtreeFree == subtreeFree) {
+                    // Ancestors are already up to date
+                    break;
+                }
+            }
+        }
+
+        /** Whether full centers or inserts have degraded the tree enough to rebuild it. */
+        boolean needsRebuild() {
+            return fullCount > Math.max(MIN_COMPACTION_THRESHOLD, size / 2)
+                    || insertsSinceBuild > Math.max(MIN_COMPACTION_THRESHOLD, size / 2);
+        }
+
+        /**
+         * Recursive k-d tree nearest neighbour search, pruning subtrees which contain no center with
+         * free capacity or which lie further than the best candidate found so far.
+         */
+        void nearest(Node node, Search search) {
+            if (node == null || !node.subtreeFree) return;
+
+            Entry entry = node.entry;
+            if (node.free) {
+                double distance = GeoDistance.chordSquared(entry.x, entry.y, entry.z, search.x, search.y, search.z);
+                if (distance < search.bestDistance
+                        || (distance == search.bestDistance && entry.id < search.best.id)) {
+                    search.best = entry;
+                    search.bestDistance = distance;
+                }
+            }
+
+            double delta = (node.axis == 0 ? search.x : node.axis == 1 ? search.y : search.z)
+                    - entry.coordinate(node.axis);
+            Node near = delta < 0 ? node.left : node.right;
+            Node far = delta < 0 ? node.right : node.left;
+
+            nearest(near, search);
+            if (delta * delta <= search.bestDistance) {
+                nearest(far, search);
+            }
+        }
+    }
+
+    // Indexed centers by id
+    private final Map<Long, Entry> entriesById = new HashMap<>();
+
+    // One bucket per order size (S, M, B)
+    private final Bucket[] buckets = new Bucket[SizeMask.SIZES];
+
+    // Number of indexed centers supporting each size, regardless of their load
+    private final int[] supportingCount = new int[SizeMask.SIZES];
+
+    public CenterSpatialIndex() {
+        for (int slot = 0; slot < buckets.length; slot++) {
+            buckets[slot] = new Bucket(slot);
+        }
+    }
+
+    /**
+     * Replaces the whole content of the index with the given centers, partitioning them in
+     * one bucket per supported order size. Only centers with "AVAILABLE" status and valid
+     * coordinates are indexed.
+     *
+     * @param centers the centers to index
+     */
+    public synchronized void rebuild(Collection<Center> centers) {
+        entriesById.clear();
+        Arrays.fill(supportingCount, 0);
+
+        for (Center center : centers) {
+            if (isIndexable(center)) {
+                Entry entry = new Entry(center);
+                entriesById.put(entry.id, entry);
+                adjustSupportingCount(entry.capacityMask, 1);
+            }
+        }
+        for (Bucket bucket : buckets) {
+            bucket.build(entriesById.values());
+        }
+    }
+
+    /**
+     * Inserts the given center, or refreshes it if it's already indexed.
+     * Centers which are no longer "AVAILABLE" are removed from the index.
+     *
+     * @param center the created or updated center
+     */
+    public synchronized void upsert(Center center) {
+        if (center == null || center.getId() == null) return;
+
+        remove(center.getId());
+        if (isIndexable(center)) {
+            add(new Entry(center));
+        }
+    }
+
+    /**
+     * Applies a change committed to a center outside the assignation runs, e.g. through the center API.
+     * Unlike {@link #upsert(Center)}, the load of an indexed center is not replaced but moved by the change
+     * itself (its new load minus the load it replaced), so the capacity reserved meanwhile by a running
+     * assignation, not committed yet, is kept. Centers which are no longer "AVAILABLE" are removed from the index.
+     *
+     * @param center the updated center
+     * @param previousLoad the load of the center the change was applied to
+     */
+    public synchronized void merge(Center center, int previousLoad) {
+        if (center == null || center.getId() == null) return;
+
+        Entry previous = entriesById.get(center.getId());
+        remove(center.getId());
+        if (isIndexable(center)) {
+            Entry entry = new Entry(center);
+            if (previous != null) {
+                entry.currentLoad = previous.currentLoad + entry.currentLoad - previousLoad;
+            }
+            add(entry);
+        }
+    }
+
+    /**
+     * Removes the center with the given id from the index, if present.
+     *
+     * @param centerId the ID of the center to remove
+     */
+    public synchronized void remove(Long centerId) {
+        Entry entry = entriesById.remove(centerId);
+        if (entry == null) return;
+
+        entry.removed = true;
+        adjustSupportingCount(entry.capacityMask, -1);
+        refreshBuckets(entry);
+    }
+
+    /**
+     * Refreshes the load values of an indexed center, e.g. after an order has been assigned to it.
+     *
+     * @param center the center whose currentLoad or maxCapacity have changed
+     */
+    public synchronized void updateLoad(Center center) {
+        Entry entry = entriesById.get(center.getId());
+        if (entry == null) return;
+
+        entry.currentLoad = center.getCurrentLoad();
+        entry.maxCapacity = center.getMaxCapacity();
+        refreshBuckets(entry);
+    }
+
+    /**
+     * Checks whether any indexed center supports the given order size, regardless of its load.
+     *
+     * @param sizeMask the order size bitmask (see {@link SizeMask})
+     * @return {@code true} if at least one center accepts that size
+     */
+    public synchronized boolean supports(byte sizeMask) {
+        int slot = SizeMask.slot(sizeMask);
+        return slot >= 0 && supportingCount[slot] > 0;
+    }
+
+    /**
+     * Finds the nearest center which supports the given order size and still has free capacity.
+     * Ties are resolved in favour of the center with the lowest id.
+     *
+     * @param sizeMask the order size bitmask (see {@link SizeMask})
+     * @param latitude the latitude of the order in decimal degrees
+     * @param longitude the longitude of the order in decimal degrees
+     * @return the closest suitable center, or {@code null} if none is available
+     */
+    public synchronized Center findNearestAvailable(byte sizeMask, double latitude, double longitude) {
+        int slot = SizeMask.slot(sizeMask);
+        if (slot < 0) return null;
+
+        Bucket bucket = buckets[slot];
+        if (bucket.root == null || !bucket.root.subtreeFree) return null;
+
+        Search search = new Search(GeoDistance.toUnitVector(latitude, longitude));
+        bucket.nearest(bucket.root, search);
+        return search.best != null ? search.best.center : null;
+    }
+
+    /**
+     * Finds the nearest center which supports the given order size and still has free capacity,
+     * and reserves one unit of its capacity in the index. The center entity is not modified.
+     *
+     * @param sizeMask the order size bitmask (see {@link SizeMask})
+     * @param latitude the latitude of the order in decimal degrees
+     * @param longitude the longitude of the order in decimal degrees
+     * @return the closest suitable center, or {@code null} if none is available
+     */
+    public synchronized Center reserveNearestAvailable(byte sizeMask, double latitude, double longitude) {
+        Center center = findNearestAvailable(sizeMask, latitude, longitude);
+        if (center == null) return null;
+
+        Entry entry = entriesById.get(center.getId());
+        entry.currentLoad++;
+        refreshBuckets(entry);
+        return center;
+    }
+
+    /**
+     * Brings the buckets of the given entry up to date: refreshes its nodes, inserts it in the buckets
+     * it has been dropped from if it has free capacity again, and compacts the degraded buckets.
+     */
+    private void refreshBuckets(Entry entry) {
+        for (Bucket bucket : buckets) {
+            if ((entry.capacityMask & (1 << bucket.slot)) == 0) continue;
+
+            Node node = entry.nodes[bucket.slot];
+            if (node != null) {
+                bucket.refresh(node);
+            } else if (entry.isFree()) {
+                bucket.insert(entry);
+            }
+
+            if (bucket.needsRebuild()) {
+                bucket.build(entriesById.values());
+            }
+        }
+    }
+
+    private void add(Entry entry) {
+        entriesById.put(entry.id, entry);
+        adjustSupportingCount(entry.capacityMask, 1);
+        refreshBuckets(entry);
+    }
+
+    private void adjustSupportingCount(byte capacityMask, int delta) {
+        for (int slot = 0; slot < supportingCount.length; slot++) {
+            if ((capacityMask & (1 << slot)) != 0) {
+                supportingCount[slot] += delta;
+            }
+        }
+    }
+
+    private static boolean isIndexable(Center center) {
+        return center.getId() != null
+                && INDEXED_STATUS.equals(center.getStatus())
+                && center.getCoordinates() != null
+                && center.getCoordinates().getLatitude() != null
+                && center.getCoordinates().getLongitude() != null;
+    }
+}
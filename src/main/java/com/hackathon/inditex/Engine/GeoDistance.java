@@ -0,0 +1,81 @@
+package com.hackathon.inditex.Engine;
+
+/**
+ * Distance computations between geographic points.
+ *
+ * {@link #calculateDistance} is the exact great-circle distance (Haversine formula), reported in the
+ * order assignations. Ranking candidate centers doesn't need it: every point is turned once into a
+ * unit vector on the sphere, and the squared chord between two unit vectors (or their dot product,
+ * {@code chord² = 2 - 2·dot}) grows monotonically with the great-circle distance, so it orders the
+ * candidates exactly like the Haversine formula at the cost of three multiplications.
+ */
+public final class GeoDistance {
+
+    /** Radius of the Earth in kilometers */
+    public static final int EARTH_RADIUS = 6371;
+
+    private GeoDistance() {
+    }
+
+    /**
+     * Calculates the great-circle distance between two geographic points using the Haversine formula.
+     * Used to calculate the distance between order-center
+     *
+     * @param startLat the latitude of the starting point in decimal degrees
+     * @param startLong the longitude of the starting point in decimal degrees
+     * @param endLat the latitude of the ending point in decimal degrees
+     * @param endLong the longitude of the ending point in decimal degrees
+     * @return the distance between the two points in kilometers
+     */
+    public static double calculateDistance(double startLat, double startLong, double endLat, double endLong) {
+        double dLat = Math.toRadians((endLat - startLat));
+        double dLong = Math.toRadians((endLong - startLong));
+
+        startLat = Math.toRadians(startLat);
+        endLat = Math.toRadians(endLat);
+
+        double a = haversine(dLat) + Math.cos(startLat) * Math.cos(endLat) * haversine(dLong);
+        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+
+        return EARTH_RADIUS * c;
+    }
+
+    /**
+     * Converts geographic coordinates to a point on the unit sphere.
+     *
+     * @param latitude the latitude in decimal degrees
+     * @param longitude the longitude in decimal degrees
+     * @return the (x, y, z) coordinates of the point
+     */
+    public static double[] toUnitVector(double latitude, double longitude) {
+        double lat = Math.toRadians(latitude);
+        double lon = Math.toRadians(longitude);
+        double cosLat = Math.cos(lat);
+        return new double[]{cosLat * Math.cos(lon), cosLat * Math.sin(lon), Math.sin(lat)};
+    }
+
+    /**
+     * Calculates the squared straight-line distance between two points on the unit sphere,
+     * which ranks points exactly like their great-circle distance.
+     *
+     * @return the squared chord between (x1, y1, z1) and (x2, y2, z2)
+     */
+    public static double chordSquared(double x1, double y1, double z1, double x2, double y2, double z2) {
+        double dx = x1 - x2;
+        double dy = y1 - y2;
+        double dz = z1 - z2;
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    /**
+     * Calculates the haversine of an angle.
+     *
+     * This is a helper method used in the Haversine formula for computing distances between two points on a sphere.
+     *
+     * @param val the angle in radians
+     * @return the haversine of the given angle
+     */
+    private static double haversine(double val) {
+        return Math.pow(Math.sin(val / 2), 2);
+    }
+}
@@ -0,0 +1,57 @@
+package com.hackathon.inditex.Engine;
+
+import com.hackathon.inditex.Entities.Center;
+import com.hackathon.inditex.Entities.Order;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Default assignation engine, backed by the shared {@link CenterSpatialIndex}.
+ *
+ * Opening a session rebuilds the index with the centers of the run, so the index keeps reflecting
+ * the loads reserved by the run once it is over. The centers changed through the center API meanwhile are
+ * merged into the index without dropping the loads the run has reserved (see {@link CenterSpatialIndex#merge}).
+ */
+@Component
+public class IndexAssignationEngine implements AssignationEngine {
+
+    /** Name of this engine in the {@code inditex.assignation.engine} property */
+    public static final String NAME = "index";
+
+    // Autowiring the CenterSpatialIndex bean from the ApplicationContext
+    @Autowired
+    private CenterSpatialIndex centerSpatialIndex;
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public AssignationSession open(List<Center> centers) {
+        centerSpatialIndex.rebuild(centers);
+
+        return new AssignationSession() {
+            @Override
+            public boolean supports(byte sizeMask) {
+                return centerSpatialIndex.supports(sizeMask);
+            }
+
+            @Override
+            public Center assign(Order order) {
+                return centerSpatialIndex.reserveNearestAvailable(
+                        order.getSizeMask(),
+                        order.getCoordinates().getLatitude(),
+                        order.getCoordinates().getLongitude()
+                );
+            }
+
+            @Override
+            public void refresh(Center center) {
+                centerSpatialIndex.upsert(center);
+            }
+        };
+    }
+}
@@ -0,0 +1,370 @@
+package com.hackathon.inditex.Engine;
+
+import com.hackathon.inditex.Entities.Center;
+import com.hackathon.inditex.Entities.Order;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Assignation engine minimizing the total distance of the orders of each chunk, instead of giving
+ * every order, one after the other, its nearest center with free capacity.
+ *
+ * The greedy engines let the first orders of a chunk take the capacity of the centers of dense areas,
+ * which pushes the later orders to far centers. This engine solves every chunk as a capacitated
+ * transportation problem instead (a min-cost flow from the orders to the centers): each order goes to
+ * at most one center supporting its size, each center takes at most the capacity it has left, and the
+ * sum of the distances is minimal.
+ *
+ * Solving a chunk takes three steps:
+ * <ol>
+ *     <li>Sparse candidate graph: the {@code candidates} nearest centers of every order, among those
+ *     supporting its size with free capacity, are looked up in a k-d tree. The cost of each edge is
+ *     the great-circle distance in km.</li>
+ *     <li>Successive shortest augmenting paths: the orders are added in the order of the chunk, each one
+ *     through the shortest path (Dijkstra, over costs kept non-negative by node potentials) from the order
+ *     to a center with free capacity, which may move orders added before to other candidates. After each
+ *     step the assignation of the orders added so far is optimal; an order without any such path is left
+ *     unassigned, as it could only be assigned by leaving out an order of the chunk that came first.</li>
+ *     <li>Greedy fallback: the orders left unassigned, whose candidates are all full, take the nearest center
+ *     with free capacity among every center, as with the {@link AssignationKernel}. So do the orders whose
+ *     search visits more than {@code max-visits} nodes, which bounds the time spent on each order when
+ *     the orders of a chunk compete for the capacity of the same centers.</li>
+ * </ol>
+ *
+ * Most searches stop at the nearest candidate of the order, when it still has free capacity, so a chunk
+ * takes little more time than with the greedy engines unless its orders compete for the same centers.
+ * Orders are only optimized together with the other orders of their chunk: the larger the
+ * {@code inditex.assignation.chunk-size}, the closer the run gets to the optimal assignation of the
+ * whole backlog. Orders assigned on their own ({@link AssignationSession#assign}), e.g. when the
+ * center chosen for them has been filled by another run, take their nearest center.
+ */
+@Component
+public class OptimalAssignationEngine implements AssignationEngine {
+
+    /** Name of this engine in the {@code inditex.assignation.engine} property */
+    public static final String NAME = "optimal";
+
+    // Number of nearest centers each order may be assigned to by the shortest paths
+    @Value("${inditex.assignation.optimal.candidates:8}")
+    private int candidates = 8;
+
+    // Nodes the shortest path search of an order may visit before the order is left to the greedy fallback
+    @Value("${inditex.assignation.optimal.max-visits:1000}")
+    private int maxVisits = 1000;
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public AssignationSession open(List<Center> centers) {
+        return new Session(new AssignationKernel.Snapshot(centers), Math.max(1, candidates), Math.max(1, maxVisits));
+    }
+
+    /** Assignation run over a kernel snapshot, which keeps the loads and resolves the greedy fallbacks. */
+    private static final class Session implements AssignationSession {
+
+        private final AssignationKernel.Snapshot snapshot;
+        private final int candidates;
+        private final int maxVisits;
+
+        Session(AssignationKernel.Snapshot snapshot, int candidates, int maxVisits) {
+            this.snapshot = snapshot;
+            this.candidates = candidates;
+            this.maxVisits = maxVisits;
+        }
+
+        @Override
+        public boolean supports(byte sizeMask) {
+            return snapshot.supports(sizeMask);
+        }
+
+        @Override
+        public Center assign(Order order) {
+            return snapshot.assign(order);
+        }
+
+        @Override
+        public void refresh(Center center) {
+            snapshot.refresh(center);
+        }
+
+        @Override
+        public Center[] assignAll(List<Order> orders) {
+            Center[] assignedCenters = new Center[orders.size()];
+
+            // 1. Candidate graph, over the centers with free capacity at the start of the chunk
+            Graph graph = new Graph(orders);
+
+            // 2. Min-cost flow, whose choices are reserved before any fallback can take their capacity
+            int[] choices = graph.solve(maxVisits);
+            for (int i = 0; i < assignedCenters.length; i++) {
+                if (choices[i] < 0) continue;
+
+                int c = graph.positions[choices[i]];
+                snapshot.reserve(c);
+                assignedCenters[i] = snapshot.centers[c];
+            }
+
+            // 3. Greedy fallback, in the order of the chunk
+            for (int i = 0; i < assignedCenters.length; i++) {
+                if (assignedCenters[i] == null) {
+                    assignedCenters[i] = snapshot.assign(orders.get(i));
+                }
+            }
+            return assignedCenters;
+        }
+
+        /**
+         * Sparse bipartite graph between the orders of a chunk and their candidate centers.
+         *
+         * The edges are stored in compressed rows: the candidates of order i are [first[i], first[i + 1]),
+         * closest first. In the searches, the nodes 0 to n - 1 are the orders and n + j is the candidate j.
+         */
+        private final class Graph {
+
+            final int[] first;
+            final int[] targets;
+            final double[] costs;
+            // Snapshot position and free capacity of every candidate center
+            final int[] positions;
+            final int[] capacities;
+
+            Graph(List<Order> orders) {
+                CandidateTree[] trees = new CandidateTree[SizeMask.SIZES];
+                int[] local = new int[snapshot.centers.length];
+                Arrays.fill(local, -1);
+
+                first = new int[orders.size() + 1];
+                int[] targetBuffer = new int[orders.size() * candidates];
+                double[] costBuffer = new double[targetBuffer.length];
+                int[] positionBuffer = new int[Math.min(snapshot.centers.length, targetBuffer.length)];
+                int edges = 0;
+                int centerCount = 0;
+
+                for (int i = 0; i < orders.size(); i++) {
+                    first[i] = edges;
+                    Order order = orders.get(i);
+                    int slot = SizeMask.slot(order.getSizeMask());
+                    if (slot < 0) continue;
+
+                    if (trees[slot] == null) {
+                        trees[slot] = new CandidateTree(snapshot.available(slot), snapshot);
+                    }
+                    double[] point = GeoDistance.toUnitVector(
+                            order.getCoordinates().getLatitude(), order.getCoordinates().getLongitude());
+                    for (int c : trees[slot].nearest(point, candidates)) {
+                        if (local[c] < 0) {
+                            local[c] = centerCount;
+                            positionBuffer[centerCount++] = c;
+                        }
+                        targetBuffer[edges] = local[c];
+                        costBuffer[edges++] = distance(point, c);
+                    }
+                }
+                first[orders.size()] = edges;
+
+                targets = Arrays.copyOf(targetBuffer, edges);
+                costs = Arrays.copyOf(costBuffer, edges);
+                positions = Arrays.copyOf(positionBuffer, centerCount);
+                capacities = new int[centerCount];
+                for (int j = 0; j < centerCount; j++) {
+                    capacities[j] = snapshot.freeCapacity(positions[j]);
+                }
+            }
+
+            /**
+             * Adds the orders one by one through their shortest augmenting path.
+             *
+             * @param maxVisits the nodes the search of an order may visit before giving up on the order
+             * @return the candidate center (index in {@link #positions}) of each order, or -1 if none
+             */
+            int[] solve(int maxVisits) {
+                int n = first.length - 1;
+                int nodes = n + positions.length;
+
+                int[] choices = new int[n];
+                Arrays.fill(choices, -1);
+                // Cost of the edge of every assigned order, and the orders assigned to every center
+                double[] choiceCosts = new double[n];
+                int[][] holders = new int[positions.length][];
+                int[] holderIndexes = new int[n];
+                int[] loads = new int[positions.length];
+
+                double[] potentials = new double[nodes];
+                double[] distances = new double[nodes];
+                // Order each center has been reached from (through the edge in predecessorEdges),
+                // and center each order has been reached from
+                int[] predecessors = new int[nodes];
+                int[] predecessorEdges = new int[nodes];
+                // Search in which each node has been reached and settled, to avoid clearing them every time
+                int[] reachedIn = new int[nodes];
+                int[] settledIn = new int[nodes];
+                int[] settled = new int[nodes];
+                // Centers from which no center with free capacity can be reached anymore
+                boolean[] saturated = new boolean[positions.length];
+                NodeHeap heap = new NodeHeap();
+
+                for (int s = 0; s < n; s++) {
+                    if (first[s] == first[s + 1]) continue;
+
+                    int search = s + 1;
+                    int settledCount = 0;
+                    int target = -1;
+                    heap.clear();
+                    reachedIn[s] = search;
+                    distances[s] = 0;
+                    heap.push(0, s);
+
+                    while (!heap.isEmpty()) {
+                        int v = heap.pop();
+                        if (settledIn[v] == search) continue;
+
+                        settledIn[v] = search;
+                        settled[settledCount++] = v;
+                        if (settledCount > maxVisits) break;
+                        double distance = distances[v];
+                        if (v < n) {
+                            // Order: forward edges to its other candidates
+                            for (int e = first[v]; e < first[v + 1]; e++) {
+                                int j = targets[e];
+                                if (j == choices[v] || saturated[j]) continue;
+
+                                int u = n + j;
+                                double reduced = Math.max(0, costs[e] + potentials[v] - potentials[u]);
+                                if (reachedIn[u] != search || distance + reduced < distances[u]) {
+                                    reachedIn[u] = search;
+                                    distances[u] = distance + reduced;
+                                    predecessors[u] = v;
+                                    predecessorEdges[u] = e;
+                                    heap.push(distances[u], u);
+                                }
+                            }
+                        } else {
+                            // Center: the end of the path if it has free capacity, or backward edges to its orders
+                            int j = v - n;
+                            if (loads[j] < capacities[j]) {
+                                target = v;
+                                break;
+                            }
+                            for (int h = 0; h < loads[j]; h++) {
+                                int u = holders[j][h];
+                                double reduced = Math.max(0, -choiceCosts[u] + potentials[v] - potentials[u]);
+                                if (reachedIn[u] != search || distance + reduced < distances[u]) {
+                                    reachedIn[u] = search;
+                                    distances[u] = distance + reduced;
+                                    predecessors[u] = v;
+                                    heap.push(distances[u], u);
+                                }
+                            }
+                        }
+                    }
+                    if (target < 0) {
+                        // Search given up: the order is left to the greedy fallback
+                        if (settledCount > maxVisits) continue;
+
+                        // Every center reachable from this order is full, and stays so for the rest of the chunk
+                        for (int k = 0; k < settledCount; k++) {
+                            if (settled[k] >= n) saturated[settled[k] - n] = true;
+                        }
+                        continue;
+                    }
+
+                    // Potentials keeping the reduced costs non-negative for the next searches
+                    double targetDistance = distances[target];
+                    for (int k = 0; k < settledCount; k++) {
+                        potentials[settled[k]] += distances[settled[k]] - targetDistance;
+                    }
+
+                    // Every order of the path moves to the center it reaches, from the one it leaves
+                    int v = target;
+                    while (true) {
+                        int order = predecessors[v];
+                        int j = v - n;
+                        int previous = choices[order];
+                        if (previous >= 0) {
+                            int last = holders[previous][--loads[previous]];
+                            holders[previous][holderIndexes[order]] = last;
+                            holderIndexes[last] = holderIndexes[order];
+                        }
+                        if (holders[j] == null) {
+                            holders[j] = new int[Math.min(4, capacities[j])];
+                        } else if (loads[j] == holders[j].length) {
+                            holders[j] = Arrays.copyOf(holders[j], Math.min(loads[j] * 2, capacities[j]));
+                        }
+                        holderIndexes[order] = loads[j];
+                        holders[j][loads[j]++] = order;
+                        choices[order] = j;
+                        choiceCosts[order] = costs[predecessorEdges[v]];
+
+                        if (order == s) break;
+                        v = n + previous;
+                    }
+                }
+                return choices;
+            }
+
+            /** Great-circle distance in km from a unit vector to the center at the given position. */
+            private double distance(double[] point, int c) {
+                double chord = Math.sqrt(GeoDistance.chordSquared(
+                        point[0], point[1], point[2], snapshot.xs[c], snapshot.ys[c], snapshot.zs[c]));
+                return 2 * GeoDistance.EARTH_RADIUS * Math.asin(Math.min(1, chord / 2));
+            }
+        }
+    }
+
+    /** Binary min-heap of graph nodes by distance. Nodes are pushed again when their distance decreases. */
+    private static final class NodeHeap {
+
+        private double[] keys = new double[64];
+        private int[] nodes = new int[64];
+        private int size;
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        void clear() {
+            size = 0;
+        }
+
+        void push(double key, int node) {
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+                nodes = Arrays.copyOf(nodes, size * 2);
+            }
+            int i = size++;
+            while (i > 0 && keys[(i - 1) / 2] > key) {
+                keys[i] = keys[(i - 1) / 2];
+                nodes[i] = nodes[(i - 1) / 2];
+                i = (i - 1) / 2;
+            }
+            keys[i] = key;
+            nodes[i] = node;
+        }
+
+        /** Removes the node with the smallest distance and returns it. */
+        int pop() {
+            int top = nodes[0];
+            double key = keys[--size];
+            int node = nodes[size];
+            int i = 0;
+            while (2 * i + 1 < size) {
+                int child = 2 * i + 1;
+                if (child + 1 < size && keys[child + 1] < keys[child]) child++;
+                if (keys[child] >= key) break;
+
+                keys[i] = keys[child];
+                nodes[i] = nodes[child];
+                i = child;
+            }
+            keys[i] = key;
+            nodes[i] = node;
+            return top;
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.hackathon.inditex.Engine;
+
+import com.hackathon.inditex.Entities.Center;
+import com.hackathon.inditex.Entities.Order;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Multi-threaded assignation engine: the nearest-center searches of a chunk run in parallel,
+ * and only the capacity reservations are made sequentially.
+ *
+ * Assigning a chunk takes two phases:
+ * <ol>
+ *     <li>The orders are grouped into geographic cells of {@code cell-degrees} side, and the cells are
+ *     processed concurrently on a dedicated {@link ForkJoinPool}. For every order, the {@code candidates}
+ *     nearest centers supporting its size are looked up in a read-only k-d tree built when the session is
+ *     opened, regardless of their load. This phase doesn't modify any state, so it needs no locking.</li>
+ *     <li>The orders are then committed one by one, in the order of the chunk: each one takes its first
+ *     candidate that still has free capacity. Only when all of its candidates are already full, the
+ *     closest available center is searched among the remaining ones.</li>
+ * </ol>
+ *
+ * Centers near the border of a cell are shared by the orders of every neighbouring cell, and the
+ * sequential commit resolves the contention for their capacity in the same way as the other engines:
+ * the first order of the chunk wins. The candidates are ranked by distance and then by center id, so
+ * the chosen centers don't depend on the thread scheduling and are the same as the ones of the
+ * sequential engines.
+ */
+@Component
+public class ParallelAssignationEngine implements AssignationEngine {
+
+    /** Name of this engine in the {@code inditex.assignation.engine} property */
+    public static final String NAME = "parallel";
+
+    // Number of nearest centers looked up in parallel for every order
+    @Value("${inditex.assignation.parallel.candidates:8}")
+    private int candidates = 8;
+
+    // Side of the geographic cells the orders are grouped in, in degrees
+    @Value("${inditex.assignation.parallel.cell-degrees:5}")
+    private double cellDegrees = 5;
+
+    // Number of worker threads, or 0 to use every available processor
+    @Value("${inditex.assignation.parallel.threads:0}")
+    private int threads;
+
+    private ForkJoinPool pool;
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public AssignationSession open(List<Center> centers) {
+        return new Session(new AssignationKernel.Snapshot(centers), candidates, cellDegrees, pool());
+    }
+
+    /** Shuts down the worker threads when the application context is closed. */
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (pool != null) {
+            pool.shutdown();
+            pool = null;
+        }
+    }
+
+    private synchronized ForkJoinPool pool() {
+        if (pool == null) {
+            pool = new ForkJoinPool(threads > 0 ? threads : Runtime.getRuntime().availableProcessors());
+        }
+        return pool;
+    }
+
+    /** Assignation run over a kernel snapshot, which keeps the loads and resolves the fallback searches. */
+    private static final class Session implements AssignationSession {
+
+        private final AssignationKernel.Snapshot snapshot;
+        private final int candidates;
+        private final double cellDegrees;
+        private final ForkJoinPool pool;
+
+        // Per order size: k-d tree of the centers supporting it that had free capacity when the session was opened
+        private final CandidateTree[] trees = new CandidateTree[SizeMask.SIZES];
+
+        // Whether a refreshed center has free capacity again, so the trees may miss it
+        private boolean treesIncomplete;
+
+        Session(AssignationKernel.Snapshot snapshot, int candidates, double cellDegrees, ForkJoinPool pool) {
+            this.snapshot = snapshot;
+            this.candidates = Math.max(1, candidates);
+            this.cellDegrees = cellDegrees;
+            this.pool = pool;
+
+            for (int slot = 0; slot < SizeMask.SIZES; slot++) {
+                trees[slot] = new CandidateTree(snapshot.available(slot), snapshot);
+            }
+        }
+
+        @Override
+        public boolean supports(byte sizeMask) {
+            return snapshot.supports(sizeMask);
+        }
+
+        @Override
+        public Center assign(Order order) {
+            return commit(order, candidates(order));
+        }
+
+        @Override
+        public void refresh(Center center) {
+            int c = snapshot.position(center.getId());
+            if (c < 0) return;
+
+            // The trees only hold the centers that had free capacity when the session was opened
+            boolean hadCapacity = snapshot.hasCapacity(c);
+            snapshot.refresh(center);
+            if (!hadCapacity && snapshot.hasCapacity(c)) {
+                treesIncomplete = true;
+            }
+        }
+
+        @Override
+        public Center[] assignAll(List<Order> orders) {
+            int[][] nearest = new int[orders.size()][];
+
+            // 1. Look up the candidates of every order, one geographic cell per task
+            List<int[]> cells = cells(orders);
+            pool.submit(() -> cells.parallelStream().forEach(cell -> {
+                for (int i : cell) {
+                    nearest[i] = candidates(orders.get(i));
+                }
+            })).join();
+
+            // 2. Reserve the capacity sequentially, in the order of the chunk
+            Center[] assignedCenters = new Center[orders.size()];
+            for (int i = 0; i < assignedCenters.length; i++) {
+                assignedCenters[i] = commit(orders.get(i), nearest[i]);
+            }
+            return assignedCenters;
+        }
+
+        /** Returns the positions of the nearest centers that may take the order, closest first. */
+        private int[] candidates(Order order) {
+            int slot = SizeMask.slot(order.getSizeMask());
+            if (slot < 0) return new int[0];
+
+            double[] point = GeoDistance.toUnitVector(
+                    order.getCoordinates().getLatitude(), order.getCoordinates().getLongitude());
+            return trees[slot].nearest(point, candidates);
+        }
+
+        /** Reserves the first candidate with free capacity, falling back to a search over every center. */
+        private Center commit(Order order, int[] nearest) {
+            if (treesIncomplete) return snapshot.assign(order);
+
+            for (int c : nearest) {
+                if (snapshot.hasCapacity(c)) {
+                    snapshot.reserve(c);
+                    return snapshot.centers[c];
+                }
+            }
+
+            // Fewer candidates than requested means they were every center supporting the order size
+            if (nearest.length < candidates) return null;
+            return snapshot.assign(order);
+        }
+
+        /**
+         * Groups the orders by geographic cell.
+         *
+         * @return the positions of the orders of each cell
+         */
+        private List<int[]> cells(List<Order> orders) {
+            long[] keys = new long[orders.size()];
+            Integer[] positions = new Integer[orders.size()];
+            for (int i = 0; i < positions.length; i++) {
+                double latitude = orders.get(i).getCoordinates().getLatitude();
+                double longitude = orders.get(i).getCoordinates().getLongitude();
+                keys[i] = (long) Math.floor((latitude + 90) / cellDegrees) << 32
+                        | (long) Math.floor((longitude + 180) / cellDegrees);
+                positions[i] = i;
+            }
+            Arrays.sort(positions, Comparator.comparingLong(i -> keys[i]));
+
+            List<int[]> cells = new ArrayList<>();
+            int start = 0;
+            for (int i = 1; i <= positions.length; i++) {
+                if (i == positions.length || keys[positions[i]] != keys[positions[start]]) {
+                    int[] cell = new int[i - start];
+                    for (int j = 0; j < cell.length; j++) {
+                        cell[j] = positions[start + j];
+                    }
+                    cells.add(cell);
+                    start = i;
+                }
+            }
+            return cells;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.hackathon.inditex.Engine;
+
+/**
+ * Compact bitmask encoding of order sizes and center capacities.
+ *
+ * Each size is a single bit (S = 1, M = 2, B = 4), so a center capacity such as "BMS" or "MS" is the
+ * union of its sizes and checking whether a center accepts an order is a single integer AND.
+ */
+public final class SizeMask {
+
+    /** Bit of the "S" (small) size */
+    public static final byte SMALL = 1;
+
+    /** Bit of the "M" (medium) size */
+    public static final byte MEDIUM = 2;
+
+    /** Bit of the "B" (big) size */
+    public static final byte BIG = 4;
+
+    /** Number of different sizes */
+    public static final int SIZES = 3;
+
+    private SizeMask() {
+    }
+
+    /**
+     * Encodes an order size ("S", "M", "B") or a center capacity ("BMS", "MS", ...) as a bitmask.
+     *
+     * @param value the size or capacity to encode
+     * @return the bitmask of the sizes contained in value; 0 if value is null or contains no known size
+     */
+    public static byte of(String value) {
+        if (value == null) return 0;
+
+        byte mask = 0;
+        for (int i = 0; i < value.length(); i++) {
+            switch (value.charAt(i)) {
+                case 'S' -> mask |= SMALL;
+                case 'M' -> mask |= MEDIUM;
+                case 'B' -> mask |= BIG;
+                default -> {
+                    // Not a size, ignored
+                }
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Checks whether a center capacity accepts an order size.
+     *
+     * @param capacityMask the center capacity bitmask
+     * @param sizeMask the order size bitmask
+     * @return {@code true} if the capacity contains the size
+     */
+    public static boolean accepts(byte capacityMask, byte sizeMask) {
+        return (capacityMask & sizeMask) != 0;
+    }
+
+    /**
+     * Returns the position (0 for S, 1 for M, 2 for B) of a single size bit.
+     *
+     * @param sizeMask the bitmask of a single size
+     * @return the position of the size, or -1 if sizeMask is not a single size
+     */
+    public static int slot(byte sizeMask) {
+        return switch (sizeMask) {
+            case SMALL -> 0;
+            case MEDIUM -> 1;
+            case BIG -> 2;
+            default -> -1;
+        };
+    }
+}
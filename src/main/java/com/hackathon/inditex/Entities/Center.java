@@ -1,16 +1,30 @@
 package com.hackathon.inditex.Entities;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.hackathon.inditex.Engine.SizeMask;
+import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.annotations.DynamicUpdate;
 
 /**
  * Represents a logistics center in the system.
  * Contains basic information from the center: id, name, capacity,
  * status, currentLoad, maxCapacity and coordinates.
+ *
+ * Updates only write the modified columns, so editing a center doesn't overwrite the
+ * currentLoad reserved meanwhile by an order assignation.
  */
 @Data
 @Entity
-@Table(name = "centers", uniqueConstraints = @UniqueConstraint(columnNames = {"latitude", "longitude"}))
+@DynamicUpdate
+@Table(name = "centers",
+        uniqueConstraints = @UniqueConstraint(name = "uk_centers_coordinates", columnNames = {"latitude", "longitude"}),
+        indexes = @Index(name = "idx_centers_status", columnList = "status"))
 public class Center {
 
     /** Unique logistics center identifier. */
@@ -25,9 +39,23 @@ public class Center {
      * Order size acceptance of the logistics center. Expected values:
      * "S", "M", "B" or a combination of two or all
      */
+    @Column(length = 3)
     private String capacity;
 
+    /**
+     * Bitmask encoding of the capacity (see {@link SizeMask}), computed once when the capacity
+     * is set or the center is loaded. Not persisted.
+     */
+    @Transient
+    @JsonIgnore
+    @Schema(hidden = true)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private byte capacityMask;
+
     /** Center status. Expected values: "AVAILABLE" or "OCCUPIED" */
+    @Column(length = 9)
     private String status;
 
     /** Center current load of orders. Cannot exceed maxCapacity number */
@@ -39,4 +67,20 @@ public class Center {
     /** Center coordinates location */
     @Embedded
     private Coordinates coordinates;
+
+    /**
+     * Sets the capacity of the center along with its bitmask encoding.
+     *
+     * @param capacity the order sizes accepted by the center
+     */
+    public void setCapacity(String capacity) {
+        this.capacity = capacity;
+        this.capacityMask = SizeMask.of(capacity);
+    }
+
+    /** Computes the capacity bitmask once the center has been loaded from the database. */
+    @PostLoad
+    private void computeCapacityMask() {
+        this.capacityMask = SizeMask.of(capacity);
+    }
 }
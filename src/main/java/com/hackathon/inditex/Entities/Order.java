@@ -1,7 +1,14 @@
 package com.hackathon.inditex.Entities;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.hackathon.inditex.Engine.SizeMask;
+import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Setter;
+import lombok.ToString;
 
 /**
  * Represents an order in the system.
@@ -10,7 +17,11 @@ import lombok.Data;
  */
 @Data
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_status_id", columnList = "status, id"),
+        @Index(name = "idx_orders_customer_id_id", columnList = "customer_id, id"),
+        @Index(name = "idx_orders_assigned_center_id", columnList = "assigned_center, id")
+})
 public class Order {
     /** Unique order identifier. */
     @Id
@@ -21,9 +32,23 @@ public class Order {
     private Long customerId;
 
     /** Order size. Expected values: "S", "M" or "B" */
+    @Column(length = 1)
     private String size;
 
+    /**
+     * Bitmask encoding of the size (see {@link SizeMask}), computed once when the size
+     * is set or the order is loaded. Not persisted.
+     */
+    @Transient
+    @JsonIgnore
+    @Schema(hidden = true)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private byte sizeMask;
+
     /** Order status. Expected values: "PENDING" or "ASSIGNED" */
+    @Column(length = 8)
     private String status;
 
     /** Name of assigned logistics center. */
@@ -32,5 +57,20 @@ public class Order {
     /** Order coordinates location */
     @Embedded
     private Coordinates coordinates;
-}
 
+    /**
+     * Sets the size of the order along with its bitmask encoding.
+     *
+     * @param size the order size
+     */
+    public void setSize(String size) {
+        this.size = size;
+        this.sizeMask = SizeMask.of(size);
+    }
+
+    /** Computes the size bitmask once the order has been loaded from the database. */
+    @PostLoad
+    private void computeSizeMask() {
+        this.sizeMask = SizeMask.of(size);
+    }
+}
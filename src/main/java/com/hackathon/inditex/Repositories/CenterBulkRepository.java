@@ -0,0 +1,124 @@
+package com.hackathon.inditex.Repositories;
+
+import com.hackathon.inditex.Entities.Center;
+import com.hackathon.inditex.Entities.Coordinates;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.util.*;
+
+/**
+ * Repository reading and writing many {@link Center} entities at once, with plain JDBC.
+ *
+ * Used by the bulk center import: existing centers are looked up by their coordinates with
+ * set-based queries, new centers are written as multi-row {@code INSERT} statements and existing
+ * ones as JDBC batch updates. Each statement handles up to {@code inditex.centers.bulk.batch-size} centers.
+ */
+@Repository
+public class CenterBulkRepository {
+
+    // Autowiring the JdbcTemplate bean from the ApplicationContext
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Number of centers handled by each statement
+    @Value("${inditex.centers.bulk.batch-size:500}")
+    private int batchSize;
+
+    /**
+     * Finds the centers located at any of the given coordinates, reading only their id and current load.
+     *
+     * @param coordinates the coordinates to look for
+     * @return the center at each of the given coordinates where there is one
+     */
+    public Map<Coordinates, Center> findByCoordinates(Collection<Coordinates> coordinates) {
+        List<Coordinates> coordinateList = new ArrayList<>(coordinates);
+        Map<Coordinates, Center> centers = new HashMap<>();
+
+        for (int from = 0; from < coordinateList.size(); from += batchSize) {
+            List<Coordinates> batch = coordinateList.subList(from, Math.min(from + batchSize, coordinateList.size()));
+            String sql = "SELECT id, current_load, latitude, longitude FROM centers WHERE (latitude, longitude) IN ("
+                    + String.join(", ", Collections.nCopies(batch.size(), "(?, ?)")) + ")";
+
+            Object[] parameters = new Object[batch.size() * 2];
+            for (int i = 0; i < batch.size(); i++) {
+                parameters[2 * i] = batch.get(i).getLatitude();
+                parameters[2 * i + 1] = batch.get(i).getLongitude();
+            }
+
+            jdbcTemplate.query(sql, resultSet -> {
+                Center center = new Center();
+                center.setId(resultSet.getLong("id"));
+                center.setCurrentLoad(resultSet.getInt("current_load"));
+                centers.put(new Coordinates(resultSet.getDouble("latitude"), resultSet.getDouble("longitude")), center);
+            }, parameters);
+        }
+        return centers;
+    }
+
+    /**
+     * Inserts the given centers and sets their generated ids.
+     *
+     * @param centers the new centers, without id
+     */
+    public void insertAll(List<Center> centers) {
+        for (int from = 0; from < centers.size(); from += batchSize) {
+            insertBatch(centers.subList(from, Math.min(from + batchSize, centers.size())));
+        }
+    }
+
+    /**
+     * Updates every attribute of the given centers, identified by their id.
+     *
+     * @param centers the existing centers, with their new values
+     */
+    public void updateAll(List<Center> centers) {
+        jdbcTemplate.batchUpdate(
+                "UPDATE centers SET name = ?, capacity = ?, status = ?, current_load = ?, max_capacity = ?, "
+                        + "latitude = ?, longitude = ? WHERE id = ?",
+                centers,
+                batchSize,
+                (statement, center) -> {
+                    statement.setString(1, center.getName());
+                    statement.setString(2, center.getCapacity());
+                    statement.setString(3, center.getStatus());
+                    statement.setInt(4, center.getCurrentLoad());
+                    statement.setInt(5, center.getMaxCapacity());
+                    statement.setDouble(6, center.getCoordinates().getLatitude());
+                    statement.setDouble(7, center.getCoordinates().getLongitude());
+                    statement.setLong(8, center.getId());
+                });
+    }
+
+    private void insertBatch(List<Center> centers) {
+        String sql = "INSERT INTO centers (name, capacity, status, current_load, max_capacity, latitude, longitude) VALUES "
+                + String.join(", ", Collections.nCopies(centers.size(), "(?, ?, ?, ?, ?, ?, ?)"));
+
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql, new String[]{"id"});
+            int parameter = 1;
+            for (Center center : centers) {
+                statement.setString(parameter++, center.getName());
+                statement.setString(parameter++, center.getCapacity());
+                statement.setString(parameter++, center.getStatus());
+                statement.setInt(parameter++, center.getCurrentLoad());
+                statement.setInt(parameter++, center.getMaxCapacity());
+                statement.setDouble(parameter++, center.getCoordinates().getLatitude());
+                statement.setDouble(parameter++, center.getCoordinates().getLongitude());
+            }
+            return statement;
+        }, keyHolder);
+
+        // One key per inserted row, in the order of the VALUES list (see OrderBulkRepository)
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        for (int i = 0; i < centers.size(); i++) {
+            centers.get(i).setId(((Number) keys.get(i).values().iterator().next()).longValue());
+        }
+    }
+}
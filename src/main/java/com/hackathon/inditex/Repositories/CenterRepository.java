@@ -1,8 +1,13 @@
 package com.hackathon.inditex.Repositories;
 
 import com.hackathon.inditex.Entities.Center;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
@@ -28,4 +33,52 @@ public interface CenterRepository extends JpaRepository<Center, Long> {
      * @return a list of centers matching the given status; empty list if none found.
      */
     List<Center> findByStatus(String status);
+
+    /**
+     * Retrieves a page of centers with an ID greater than the given one, ordered by their ID
+     * in ascending order. Used for keyset pagination over the centers.
+     *
+     * @param id the exclusive lower bound for the center IDs.
+     * @param limit the maximum number of centers to retrieve.
+     * @return up to {@code limit} centers sorted by ID ascending; empty list if none found.
+     */
+    List<Center> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    /**
+     * Retrieves a page of centers with the specified status and an ID greater than the given one,
+     * ordered by their ID in ascending order. Used for keyset pagination over the centers.
+     *
+     * @param status the status to filter centers by.
+     * @param id the exclusive lower bound for the center IDs.
+     * @param limit the maximum number of centers to retrieve.
+     * @return up to {@code limit} centers matching the given status, sorted by ID ascending; empty list if none found.
+     */
+    List<Center> findByStatusAndIdGreaterThanOrderByIdAsc(String status, Long id, Limit limit);
+
+    /**
+     * Retrieves a center by its id and locks its row until the end of the current transaction,
+     * so its load can be checked and modified without any concurrent assignation changing it.
+     *
+     * @param id the ID of the center.
+     * @return the center with its committed values, or empty if it doesn't exist.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Center c WHERE c.id = :id")
+    Optional<Center> findByIdForUpdate(@Param("id") Long id);
+
+    /**
+     * Atomically reserves capacity of a center: increments its current load by the given amount,
+     * only if the center is still AVAILABLE and its new load doesn't exceed its maximum capacity.
+     *
+     * The condition is checked by the database against the committed load, so concurrent
+     * assignations, in this instance or in any other one, can't overbook the center.
+     *
+     * @param id the ID of the center.
+     * @param amount the number of orders assigned to the center.
+     * @return 1 if the capacity has been reserved, 0 if the center can't take that many orders.
+     */
+    @Modifying
+    @Query("UPDATE Center c SET c.currentLoad = c.currentLoad + :amount "
+            + "WHERE c.id = :id AND c.status = 'AVAILABLE' AND c.currentLoad + :amount <= c.maxCapacity")
+    int reserveCapacity(@Param("id") Long id, @Param("amount") int amount);
 }
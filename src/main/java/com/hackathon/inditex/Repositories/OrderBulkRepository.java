@@ -0,0 +1,72 @@
+package com.hackathon.inditex.Repositories;
+
+import com.hackathon.inditex.Entities.Order;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Repository inserting many {@link Order} entities at once, with plain JDBC.
+ *
+ * Hibernate can't batch the inserts of entities with IDENTITY ids, as it needs the generated id of
+ * each row right after inserting it. This repository writes them as multi-row
+ * {@code INSERT ... VALUES (...), (...)} statements instead, and reads back the generated ids of every
+ * row of a statement at once. Each statement inserts up to {@code inditex.orders.bulk.batch-size} orders.
+ */
+@Repository
+public class OrderBulkRepository {
+
+    // Autowiring the JdbcTemplate bean from the ApplicationContext
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Number of orders inserted by each statement
+    @Value("${inditex.orders.bulk.batch-size:500}")
+    private int batchSize;
+
+    /**
+     * Inserts the given orders and sets their generated ids.
+     *
+     * @param orders the new orders, without id
+     */
+    public void insertAll(List<Order> orders) {
+        for (int from = 0; from < orders.size(); from += batchSize) {
+            insertBatch(orders.subList(from, Math.min(from + batchSize, orders.size())));
+        }
+    }
+
+    private void insertBatch(List<Order> orders) {
+        String sql = "INSERT INTO orders (customer_id, size, status, assigned_center, latitude, longitude) VALUES "
+                + String.join(", ", Collections.nCopies(orders.size(), "(?, ?, ?, ?, ?, ?)"));
+
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql, new String[]{"id"});
+            int parameter = 1;
+            for (Order order : orders) {
+                statement.setLong(parameter++, order.getCustomerId());
+                statement.setString(parameter++, order.getSize());
+                statement.setString(parameter++, order.getStatus());
+                statement.setString(parameter++, order.getAssignedCenter());
+                statement.setDouble(parameter++, order.getCoordinates().getLatitude());
+                statement.setDouble(parameter++, order.getCoordinates().getLongitude());
+            }
+            return statement;
+        }, keyHolder);
+
+        // One key per inserted row, in the order of the VALUES list. The name of the generated
+        // column depends on the driver ("GENERATED_KEY" for MySQL, "id" for PostgreSQL)
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        for (int i = 0; i < orders.size(); i++) {
+            orders.get(i).setId(((Number) keys.get(i).values().iterator().next()).longValue());
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.hackathon.inditex.Repositories;
+
+import com.hackathon.inditex.DTO.OrderSummary;
+import com.hackathon.inditex.Entities.Coordinates;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Repository reading lists of orders with plain JDBC, straight into {@link OrderSummary} DTOs:
+ * no Order entity is loaded into the persistence context.
+ *
+ * Lists are read with keyset (cursor) pagination: every page is a {@code WHERE id > ? ORDER BY id LIMIT ?}
+ * query served by the primary key, or by the {@code (status, id)}, {@code (customer_id, id)} and
+ * {@code (assigned_center, id)} indexes when filtered, so its cost doesn't depend on the page number.
+ * Whole exports are streamed from a single forward-only cursor instead.
+ */
+@Repository
+public class OrderQueryRepository {
+
+    static final String SELECT_SUMMARY =
+            "SELECT id, customer_id, size, status, assigned_center, latitude, longitude FROM orders";
+
+    // Autowiring the JdbcTemplate bean from the ApplicationContext
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Number of rows fetched at once by the order export, for databases other than MySQL
+    @Value("${inditex.orders.export.fetch-size:1000}")
+    private int exportFetchSize;
+
+    /**
+     * Retrieves a page of orders matching the given filters, ordered by their ID in ascending order.
+     * Null filters are ignored.
+     *
+     * @param status the status to filter orders by, or null
+     * @param assignedCenter the name of the assigned center to filter orders by, or null
+     * @param customerId the customer to filter orders by, or null
+     * @param afterId the exclusive lower bound for the order IDs
+     * @param limit the maximum number of orders to retrieve
+     * @return up to {@code limit} matching orders, sorted by ID ascending; empty list if none found
+     */
+    public List<OrderSummary> findPage(String status, String assignedCenter, Long customerId, long afterId, int limit) {
+        StringBuilder sql = new StringBuilder(SELECT_SUMMARY).append(" WHERE id > ?");
+        List<Object> parameters = new ArrayList<>();
+        parameters.add(afterId);
+        appendFilters(sql, parameters, status, assignedCenter, customerId);
+        sql.append(" ORDER BY id LIMIT ?");
+        parameters.add(limit);
+
+        return jdbcTemplate.query(sql.toString(), (resultSet, rowNumber) -> toSummary(resultSet), parameters.toArray());
+    }
+
+    /**
+     * Reads every order matching the given filters, ordered by their ID in ascending order, and hands
+     * them one at a time to the given action. Null filters are ignored.
+     *
+     * The orders are read with a single query through a forward-only, read-only cursor, so only
+     * the rows of the current fetch are held in memory, whatever the number of orders. With MySQL,
+     * the rows are streamed one by one (fetch size {@link Integer#MIN_VALUE}); with other databases
+     * they are fetched {@code inditex.orders.export.fetch-size} rows at a time, which PostgreSQL
+     * only honours inside a transaction.
+     *
+     * @param status the status to filter orders by, or null
+     * @param assignedCenter the name of the assigned center to filter orders by, or null
+     * @param customerId the customer to filter orders by, or null
+     * @param action the action applied to each order, in ID order
+     */
+    public void forEach(String status, String assignedCenter, Long customerId, Consumer<OrderSummary> action) {
+        StringBuilder sql = new StringBuilder(SELECT_SUMMARY).append(" WHERE 1 = 1");
+        List<Object> parameters = new ArrayList<>();
+        appendFilters(sql, parameters, status, assignedCenter, customerId);
+        sql.append(" ORDER BY id");
+
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                    sql.toString(), ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(isMySql(connection) ? Integer.MIN_VALUE : exportFetchSize);
+            for (int i = 0; i < parameters.size(); i++) {
+                statement.setObject(i + 1, parameters.get(i));
+            }
+            return statement;
+        }, (RowCallbackHandler) resultSet -> action.accept(toSummary(resultSet)));
+    }
+
+    /** Appends a condition, and its parameter, for each given filter. */
+    private static void appendFilters(StringBuilder sql, List<Object> parameters,
+                                      String status, String assignedCenter, Long customerId) {
+        if (status != null) {
+            sql.append(" AND status = ?");
+            parameters.add(status);
+        }
+        if (assignedCenter != null) {
+            sql.append(" AND assigned_center = ?");
+            parameters.add(assignedCenter);
+        }
+        if (customerId != null) {
+            sql.append(" AND customer_id = ?");
+            parameters.add(customerId);
+        }
+    }
+
+    /** Maps the current row of a {@link #SELECT_SUMMARY} query. */
+    private static OrderSummary toSummary(ResultSet resultSet) throws SQLException {
+        return new OrderSummary(
+                resultSet.getLong("id"),
+                resultSet.getObject("customer_id", Long.class),
+                resultSet.getString("size"),
+                resultSet.getString("status"),
+                resultSet.getString("assigned_center"),
+                new Coordinates(resultSet.getObject("latitude", Double.class), resultSet.getObject("longitude", Double.class)));
+    }
+
+    /** Whether the connection is to MySQL, whose driver only streams rows with a fetch size of Integer.MIN_VALUE. */
+    private static boolean isMySql(Connection connection) throws SQLException {
+        return "MySQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName());
+    }
+}
@@ -1,8 +1,15 @@
 package com.hackathon.inditex.Repositories;
 
 import com.hackathon.inditex.Entities.Order;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -11,6 +18,10 @@ import java.util.List;
  * Extends {@link JpaRepository} to provide standard database operations.
  */
 public interface OrderRepository extends JpaRepository<Order, Long> {
+
+    /** Lock timeout hint value that makes the locking reads skip the rows locked by other transactions */
+    String SKIP_LOCKED = "-2";
+
     /**
      * Retrieves all orders with the specified status, ordered by their ID in ascending order.
      *
@@ -19,4 +30,43 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
      *         empty list if none found
      */
     List<Order> findByStatusOrderByIdAsc(String status);
+
+    /**
+     * Counts the orders with the specified status.
+     *
+     * @param status the status to filter orders by
+     * @return the number of orders matching the given status
+     */
+    long countByStatus(String status);
+
+    /**
+     * Claims a chunk of orders with the specified status and an ID greater than the given one,
+     * ordered by their ID in ascending order. Used for keyset pagination over large backlogs.
+     *
+     * The orders are read with {@code SELECT ... FOR UPDATE SKIP LOCKED}: they stay locked until the
+     * end of the current transaction, and the orders already locked by other transactions (e.g. the
+     * assignation runs of other application instances) are skipped instead of waited for.
+     *
+     * @param status the status to filter orders by
+     * @param id the exclusive lower bound for the order IDs
+     * @param limit the maximum number of orders to retrieve
+     * @return up to {@code limit} orders matching the given status, sorted by ID ascending;
+     *         empty list if none found
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = AvailableSettings.JAKARTA_LOCK_TIMEOUT, value = SKIP_LOCKED))
+    List<Order> findByStatusAndIdGreaterThanOrderByIdAsc(String status, Long id, Limit limit);
+
+    /**
+     * Claims the orders with the given IDs which still have the specified status, ordered by their ID
+     * in ascending order. As in {@link #findByStatusAndIdGreaterThanOrderByIdAsc}, the orders locked by
+     * other transactions are skipped.
+     *
+     * @param ids the IDs of the orders to claim
+     * @param status the status to filter orders by
+     * @return the matching orders which were not locked, sorted by ID ascending; empty list if none found
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = AvailableSettings.JAKARTA_LOCK_TIMEOUT, value = SKIP_LOCKED))
+    List<Order> findByIdInAndStatusOrderByIdAsc(Collection<Long> ids, String status);
 }
@@ -0,0 +1,131 @@
+package com.hackathon.inditex.Repositories;
+
+import com.hackathon.inditex.DTO.OrderSummary;
+import com.hackathon.inditex.Entities.Coordinates;
+import com.hackathon.inditex.Entities.Order;
+import io.r2dbc.spi.Readable;
+import io.r2dbc.spi.Statement;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.binding.BindMarkers;
+import org.springframework.r2dbc.core.binding.BindMarkersFactoryResolver;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Repository writing and reading orders with R2DBC: the calls never block a thread while
+ * waiting for the database, whose rows are published as they arrive.
+ *
+ * Orders are inserted many at once, as a single statement with one binding per order, executed in a single
+ * transaction: the driver sends the bindings together, and the whole batch is committed at once. Lists are
+ * read with the same keyset (cursor) pagination as {@link OrderQueryRepository}.
+ */
+@Repository
+public class ReactiveOrderRepository {
+
+    // Autowiring the DatabaseClient bean from the ApplicationContext
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    // Insert statement, with the bind markers of the database ("?" for MySQL, "$1"... for PostgreSQL and H2)
+    private String insertSql;
+
+    /** Builds the insert statement with the bind markers of the database. */
+    @PostConstruct
+    public void prepareStatements() {
+        BindMarkers markers = BindMarkersFactoryResolver.resolve(databaseClient.getConnectionFactory()).create();
+        StringBuilder values = new StringBuilder();
+        for (int i = 0; i < 6; i++) {
+            values.append(i == 0 ? "" : ", ").append(markers.next().getPlaceholder());
+        }
+        insertSql = "INSERT INTO orders (customer_id, size, status, assigned_center, latitude, longitude) VALUES (" + values + ")";
+    }
+
+    /**
+     * Inserts the given orders in a single transaction.
+     *
+     * @param orders the new orders, without id
+     * @return the generated ids, in the order of the given orders; an error if the batch has been rolled back
+     */
+    public Flux<Long> insertAll(List<Order> orders) {
+        return databaseClient.inConnectionMany(connection -> Flux.usingWhen(
+                Mono.from(connection.beginTransaction()).thenReturn(connection),
+                transaction -> {
+                    Statement statement = transaction.createStatement(insertSql).returnGeneratedValues("id");
+                    for (int i = 0; i < orders.size(); i++) {
+                        if (i > 0) statement.add();
+                        bind(statement, orders.get(i));
+                    }
+                    // One result per binding, with its generated id
+                    return Flux.from(statement.execute())
+                            .concatMap(result -> result.map(row -> ((Number) row.get(0)).longValue()));
+                },
+                transaction -> transaction.commitTransaction(),
+                (transaction, error) -> transaction.rollbackTransaction(),
+                transaction -> transaction.rollbackTransaction()));
+    }
+
+    /**
+     * Retrieves a page of orders matching the given filters, ordered by their ID in ascending order.
+     * Null filters are ignored.
+     *
+     * @param status the status to filter orders by, or null
+     * @param assignedCenter the name of the assigned center to filter orders by, or null
+     * @param customerId the customer to filter orders by, or null
+     * @param afterId the exclusive lower bound for the order IDs
+     * @param limit the maximum number of orders to retrieve
+     * @return up to {@code limit} matching orders, sorted by ID ascending, published as they are read
+     */
+    public Flux<OrderSummary> findPage(String status, String assignedCenter, Long customerId, long afterId, int limit) {
+        StringBuilder sql = new StringBuilder(OrderQueryRepository.SELECT_SUMMARY).append(" WHERE id > :afterId");
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        parameters.put("afterId", afterId);
+        if (status != null) {
+            sql.append(" AND status = :status");
+            parameters.put("status", status);
+        }
+        if (assignedCenter != null) {
+            sql.append(" AND assigned_center = :assignedCenter");
+            parameters.put("assignedCenter", assignedCenter);
+        }
+        if (customerId != null) {
+            sql.append(" AND customer_id = :customerId");
+            parameters.put("customerId", customerId);
+        }
+        sql.append(" ORDER BY id LIMIT :limit");
+        parameters.put("limit", limit);
+
+        return databaseClient.sql(sql.toString())
+                .bindValues(parameters)
+                .map(ReactiveOrderRepository::toSummary)
+                .all();
+    }
+
+    /** Binds the columns of the insert statement to the attributes of an order. */
+    private static void bind(Statement statement, Order order) {
+        statement.bind(0, order.getCustomerId());
+        statement.bind(1, order.getSize());
+        statement.bind(2, order.getStatus());
+        if (order.getAssignedCenter() != null) statement.bind(3, order.getAssignedCenter());
+        else statement.bindNull(3, String.class);
+        statement.bind(4, order.getCoordinates().getLatitude());
+        statement.bind(5, order.getCoordinates().getLongitude());
+    }
+
+    /** Maps a row of a {@link OrderQueryRepository#SELECT_SUMMARY} query. */
+    private static OrderSummary toSummary(Readable row) {
+        return new OrderSummary(
+                ((Number) row.get("id")).longValue(),
+                row.get("customer_id", Long.class),
+                row.get("size", String.class),
+                row.get("status", String.class),
+                row.get("assigned_center", String.class),
+                new Coordinates(row.get("latitude", Double.class), row.get("longitude", Double.class)));
+    }
+}
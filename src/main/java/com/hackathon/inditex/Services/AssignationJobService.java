@@ -0,0 +1,280 @@
+package com.hackathon.inditex.Services;
+
+import com.hackathon.inditex.DTO.AssignationJobStatus;
+import com.hackathon.inditex.DTO.CursorPage;
+import com.hackathon.inditex.DTO.OrderAssignation;
+import com.hackathon.inditex.Repositories.OrderRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service running the order assignation as asynchronous jobs, so that large backlogs don't keep
+ * an HTTP request open for the whole run.
+ *
+ * A job is submitted and returned right away; its run executes on a dedicated executor thread, as
+ * {@link OrderManagementService#orderAssignation(java.util.function.Consumer)} does (chunk by chunk, each
+ * chunk in its own transaction). Its progress and the assignment results of the committed chunks can be
+ * read at any time, and it can be cancelled: the run then stops before claiming its next chunk.
+ *
+ * Whatever the size of the backlog, a job only counts its results, and keeps the last
+ * {@code inditex.assignation.jobs.results-window} of them in memory: the older ones are dropped as the run
+ * goes, so the memory used by a job is bounded.
+ *
+ * Every job assigns the pending orders to the whole set of AVAILABLE centers, so only one job runs at a
+ * time: submitting another one is rejected until it finishes. The last
+ * {@code inditex.assignation.jobs.retained} finished jobs are kept in memory, with their last results.
+ */
+@Slf4j
+@Service
+public class AssignationJobService {
+
+    // Autowiring the OrderManagementService bean from the ApplicationContext
+    @Autowired
+    private OrderManagementService orderManagementService;
+
+    // Autowiring the OrderRepository bean from the ApplicationContext
+    @Autowired
+    private OrderRepository orderRepository;
+
+    // Whether the jobs run on a virtual thread instead of a platform one
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    // Number of finished jobs kept in memory, with their last results
+    @Value("${inditex.assignation.jobs.retained:5}")
+    private int retainedJobs;
+
+    // Number of the last results of a job kept in memory
+    @Value("${inditex.assignation.jobs.results-window:10000}")
+    private int resultsWindow;
+
+    // Jobs by id, in submission order: the running job, if any, and the last finished ones
+    private final Map<String, Job> jobs = new LinkedHashMap<>();
+
+    // Job currently running, or null
+    private Job runningJob;
+
+    private ExecutorService executor;
+
+    /** Progress and results of a job, written by the executor thread and read by the requests. */
+    private static final class Job {
+        private final String id = UUID.randomUUID().toString();
+        private final Instant startedAt = Instant.now();
+        private final long startNanos = System.nanoTime();
+
+        // Last assignment results of the committed chunks, in order id ascending order: a ring buffer
+        // of which the oldest result is at position first
+        private final OrderAssignation[] recentResults;
+        private int first;
+        private int retainedResults;
+
+        private int processedOrders;
+        private int assignedOrders;
+
+        private String status = "RUNNING";
+        private String message;
+        private Instant finishedAt;
+        private long finishedNanos;
+        private volatile Long pendingOrders;
+        private volatile boolean cancelled;
+
+        private Job(int resultsWindow) {
+            this.recentResults = new OrderAssignation[resultsWindow];
+        }
+
+        private synchronized void add(OrderAssignation orderAssignation) {
+            processedOrders++;
+            if ("ASSIGNED".equals(orderAssignation.getStatus())) assignedOrders++;
+
+            // Once the window is full, the new result replaces the oldest one
+            if (recentResults.length == 0) return;
+            if (retainedResults < recentResults.length) {
+                recentResults[(first + retainedResults++) % recentResults.length] = orderAssignation;
+            } else {
+                recentResults[first] = orderAssignation;
+                first = (first + 1) % recentResults.length;
+            }
+        }
+
+        /** The position-th oldest of the retained results. */
+        private OrderAssignation recentResult(int position) {
+            return recentResults[(first + position) % recentResults.length];
+        }
+
+        private synchronized void finish(String status, String message) {
+            this.status = status;
+            this.message = message;
+            this.finishedNanos = System.nanoTime();
+            this.finishedAt = Instant.now();
+        }
+
+        private synchronized AssignationJobStatus toStatus() {
+            long elapsedNanos = (finishedAt != null ? finishedNanos : System.nanoTime()) - startNanos;
+            double throughput = processedOrders * 1e9 / Math.max(elapsedNanos, 1);
+
+            // Orders created meanwhile aren't counted: the estimate never goes below zero
+            Long etaSeconds = null;
+            if (finishedAt == null && pendingOrders != null && processedOrders > 0) {
+                etaSeconds = (long) Math.ceil(Math.max(pendingOrders - processedOrders, 0) / throughput);
+            }
+            return new AssignationJobStatus(id, status, message, startedAt, finishedAt, pendingOrders,
+                    processedOrders, assignedOrders, processedOrders - assignedOrders, throughput, etaSeconds);
+        }
+
+        private synchronized CursorPage<OrderAssignation> page(long after, int limit) {
+            // The results are sorted by order id: binary search of the first one after the cursor. A cursor
+            // older than the window starts from the oldest retained result
+            int from = 0;
+            int to = retainedResults;
+            while (from < to) {
+                int middle = (from + to) >>> 1;
+                if (recentResult(middle).getOrderId() <= after) from = middle + 1;
+                else to = middle;
+            }
+            int end = Math.min(from + limit, retainedResults);
+            List<OrderAssignation> items = new ArrayList<>(end - from);
+            for (int position = from; position < end; position++) {
+                items.add(recentResult(position));
+            }
+
+            // Results still to come may be on the next page while the job is running
+            boolean hasNext = end < retainedResults || (finishedAt == null && !items.isEmpty());
+            return new CursorPage<>(items, hasNext && !items.isEmpty() ? items.getLast().getOrderId() : null);
+        }
+    }
+
+    /** Starts the executor running the jobs, on a virtual thread when {@code spring.threads.virtual.enabled} is set. */
+    @PostConstruct
+    public void start() {
+        Thread.Builder threads = virtualThreads ? Thread.ofVirtual() : Thread.ofPlatform().daemon();
+        executor = Executors.newSingleThreadExecutor(threads.name("order-assignation-job").factory());
+    }
+
+    /** Cancels the running job, and stops the executor once it has stopped. */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        synchronized (this) {
+            if (runningJob != null) runningJob.cancelled = true;
+        }
+        executor.shutdown();
+        executor.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Submits a job assigning every PENDING order to the available logistics centers.
+     *
+     * @return the {@link AssignationJobStatus} of the submitted job
+     * @throws ResponseStatusException if another job is running (409 Conflict)
+     */
+    public synchronized AssignationJobStatus submit() {
+        if (runningJob != null) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "An assignation job is already running: " + runningJob.id);
+        }
+
+        Job job = new Job(resultsWindow);
+        jobs.put(job.id, job);
+        runningJob = job;
+        executor.execute(() -> run(job));
+        return job.toStatus();
+    }
+
+    /**
+     * Retrieves the progress of a job.
+     *
+     * @param id the id of the job
+     * @return the {@link AssignationJobStatus} of the job
+     * @throws ResponseStatusException if there is no job with the given id (404 Not Found)
+     */
+    public AssignationJobStatus readJob(String id) {
+        return getJob(id).toStatus();
+    }
+
+    /**
+     * Retrieves a page of the last assignment results of a job, in order id ascending order.
+     * While the job is running, the results of the committed chunks are available. Only the last
+     * {@code inditex.assignation.jobs.results-window} results are kept: a cursor older than them starts
+     * from the oldest one kept.
+     *
+     * @param id the id of the job
+     * @param after the id of the last order of the previous page, or null for the first page
+     * @param limit the maximum number of results to return, or null for {@code inditex.pagination.default-limit}
+     * @return the results of the page, with the cursor of the next page if there are (or may be) more results
+     * @throws ResponseStatusException if there is no job with the given id (404 Not Found) or the limit is invalid (400 Bad Request)
+     */
+    public CursorPage<OrderAssignation> readResults(String id, Long after, Integer limit) {
+        int pageLimit = orderManagementService.pageLimit(limit);
+        return getJob(id).page(after == null ? 0L : after, pageLimit);
+    }
+
+    /**
+     * Cancels a job. The run stops before claiming its next chunk of orders: the orders of the chunks
+     * already committed stay assigned, and the others remain PENDING.
+     *
+     * @param id the id of the job
+     * @return the {@link AssignationJobStatus} of the job, still RUNNING until its current chunk is committed
+     * @throws ResponseStatusException if there is no job with the given id (404 Not Found)
+     */
+    public AssignationJobStatus cancelJob(String id) {
+        Job job = getJob(id);
+        job.cancelled = true;
+        return job.toStatus();
+    }
+
+    /**
+     * Runs a job on the executor thread.
+     *
+     * The method performs the following steps:
+     * 1. Counts the PENDING orders, to estimate the remaining time.
+     * 2. Runs the order assignation, recording every result, until it completes or the job is cancelled.
+     * 3. Records the outcome of the job, and evicts the oldest finished jobs beyond {@code inditex.assignation.jobs.retained}.
+     *
+     * @param job the job to run
+     */
+    private void run(Job job) {
+        String status = "FAILED";
+        String message = null;
+        try {
+            job.pendingOrders = orderRepository.countByStatus("PENDING");
+            orderManagementService.orderAssignation(job::add, () -> job.cancelled);
+            status = job.cancelled ? "CANCELLED" : "COMPLETED";
+        } catch (RuntimeException e) {
+            log.warn("Order assignation job {} failed", job.id, e);
+            message = e.getMessage();
+        } finally {
+            job.finish(status, message);
+            release();
+        }
+    }
+
+    /** Releases the running job slot, and evicts the oldest finished jobs beyond the retained ones. */
+    private synchronized void release() {
+        runningJob = null;
+
+        int evicted = jobs.size() - retainedJobs;
+        for (Iterator<Job> iterator = jobs.values().iterator(); evicted > 0 && iterator.hasNext(); evicted--) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    private synchronized Job getJob(String id) {
+        Job job = jobs.get(id);
+        if (job == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Assignation job not found");
+        }
+        return job;
+    }
+}
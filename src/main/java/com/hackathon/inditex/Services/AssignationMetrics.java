@@ -0,0 +1,158 @@
+package com.hackathon.inditex.Services;
+
+import com.hackathon.inditex.DTO.OrderAssignation;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Micrometer meters of the order assignation, exposed with every other metric under
+ * {@code /actuator/metrics} and, in the Prometheus format, under {@code /actuator/prometheus}.
+ *
+ * The following meters are registered:
+ * - {@code inditex.assignation.runs}: duration of the assignation runs, tagged with the
+ *   {@code trigger} ("request", "job" or "continuous") and the {@code outcome} ("success" or "error").
+ * - {@code inditex.assignation.orders}: orders processed, tagged with their {@code result}:
+ *   "assigned", "full" (all centers are at maximum capacity) or "unsupported" (no available
+ *   center supports the order type). Its rate is the number of orders processed per second.
+ * - {@code inditex.assignation.throughput}: orders per second processed by the last run.
+ * - {@code inditex.assignation.decision}: histogram of the amortized time spent deciding each order: an even
+ *   share of the engine time of its chunk (the engine decides a whole chunk at once, so the time of a single
+ *   order is not measured) plus the time taken to process its choice.
+ * - {@code inditex.assignation.phase}: time spent in the database ({@code phase=db}: claiming the
+ *   orders, reserving the capacity and writing the changes) and in the engine ({@code phase=compute}:
+ *   choosing the centers, including the orders reassigned when a center has no capacity left).
+ */
+@Component
+public class AssignationMetrics {
+
+    // Autowiring the MeterRegistry bean from the ApplicationContext
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Counter assignedOrders;
+    private Counter fullOrders;
+    private Counter unsupportedOrders;
+    private Timer decisionTimer;
+    private Timer dbTimer;
+    private Timer computeTimer;
+
+    // Orders per second of the last run, read by the throughput gauge
+    private volatile double lastThroughput;
+
+    /** Registers the meters of the order assignation. */
+    @PostConstruct
+    public void bindMetrics() {
+        assignedOrders = ordersCounter("assigned");
+        fullOrders = ordersCounter("full");
+        unsupportedOrders = ordersCounter("unsupported");
+        decisionTimer = Timer.builder("inditex.assignation.decision")
+                .description("Amortized time spent deciding the center of each order: an even share of the engine time "
+                        + "of its chunk, plus the time taken to process its choice")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofNanos(100))
+                .maximumExpectedValue(Duration.ofSeconds(1))
+                .register(meterRegistry);
+        dbTimer = phaseTimer("db");
+        computeTimer = phaseTimer("compute");
+        Gauge.builder("inditex.assignation.throughput", this, metrics -> metrics.lastThroughput)
+                .description("Orders per second processed by the last assignation run")
+                .baseUnit("orders/s")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs a database operation of the order assignation, adding its duration to the db phase.
+     *
+     * @param operation the database operation
+     * @param <T> the type of the result
+     * @return the result of the operation
+     */
+    public <T> T db(Supplier<T> operation) {
+        return dbTimer.record(operation);
+    }
+
+    /**
+     * Runs a database operation of the order assignation, adding its duration to the db phase.
+     *
+     * @param operation the database operation
+     */
+    public void db(Runnable operation) {
+        dbTimer.record(operation);
+    }
+
+    /**
+     * Adds time spent by the engine to the compute phase.
+     *
+     * @param nanos the time spent, in nanoseconds
+     */
+    public void recordCompute(long nanos) {
+        computeTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Records the amortized time spent deciding the center of an order.
+     *
+     * @param nanos the share of the engine time of its chunk plus the time taken to process its choice, in nanoseconds
+     */
+    public void recordDecision(long nanos) {
+        decisionTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Counts an order processed by a committed assignation, by result.
+     *
+     * @param orderAssignation the assignment result of the order
+     */
+    public void orderProcessed(OrderAssignation orderAssignation) {
+        if ("ASSIGNED".equals(orderAssignation.getStatus())) {
+            assignedOrders.increment();
+        } else if (OrderManagementService.CENTERS_FULL_MESSAGE.equals(orderAssignation.getMessage())) {
+            fullOrders.increment();
+        } else {
+            unsupportedOrders.increment();
+        }
+    }
+
+    /**
+     * Records a completed or failed assignation run.
+     *
+     * @param trigger what started the run: "request", "job" or "continuous"
+     * @param nanos the duration of the run, in nanoseconds
+     * @param processedOrders the number of orders processed by the run
+     * @param success {@code false} if the run has thrown an exception
+     */
+    public void recordRun(String trigger, long nanos, int processedOrders, boolean success) {
+        Timer.builder("inditex.assignation.runs")
+                .description("Duration of the order assignation runs")
+                .tag("trigger", trigger)
+                .tag("outcome", success ? "success" : "error")
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+        if (processedOrders > 0) {
+            lastThroughput = processedOrders * 1e9 / Math.max(nanos, 1);
+        }
+    }
+
+    private Counter ordersCounter(String result) {
+        return Counter.builder("inditex.assignation.orders")
+                .description("Orders processed by the order assignation, by result")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private Timer phaseTimer(String phase) {
+        return Timer.builder("inditex.assignation.phase")
+                .description("Time spent by the order assignation in the database (db) and in the engine (compute)")
+                .tag("phase", phase)
+                .register(meterRegistry);
+    }
+}
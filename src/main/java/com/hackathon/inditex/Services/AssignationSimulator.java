@@ -0,0 +1,312 @@
+package com.hackathon.inditex.Services;
+
+import com.hackathon.inditex.DTO.CenterOverride;
+import com.hackathon.inditex.DTO.CenterRequest;
+import com.hackathon.inditex.DTO.CenterSummary;
+import com.hackathon.inditex.DTO.OrderAssignation;
+import com.hackathon.inditex.DTO.SimulationRequest;
+import com.hackathon.inditex.DTO.SimulationResponse;
+import com.hackathon.inditex.DTO.SimulationStats;
+import com.hackathon.inditex.Engine.AssignationEngine;
+import com.hackathon.inditex.Engine.AssignationKernel;
+import com.hackathon.inditex.Engine.AssignationSession;
+import com.hackathon.inditex.Engine.CenterSpatialIndex;
+import com.hackathon.inditex.Engine.GeoDistance;
+import com.hackathon.inditex.Engine.IndexAssignationEngine;
+import com.hackathon.inditex.Entities.Center;
+import com.hackathon.inditex.Entities.Coordinates;
+import com.hackathon.inditex.Entities.Order;
+import com.hackathon.inditex.Repositories.CenterRepository;
+import com.hackathon.inditex.Repositories.OrderQueryRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Service simulating the order assignation of the PENDING orders in memory, with what-if changes
+ * to the centers, without modifying any order or center.
+ *
+ * Simulations are meant to be run many times in a row, e.g. to compare capacity plans:
+ * - The PENDING orders are read once into an immutable snapshot shared by every simulation. It is read
+ *   again only after orders have been created or assigned through this instance, or once it is older than
+ *   {@code inditex.simulation.snapshot-ttl}, so the changes made by other instances are seen too.
+ * - The centers, a few rows unlike the orders, are read from the database by every simulation, so the centers
+ *   created or modified through any instance are seen right away. The scenario is applied copy-on-write: the
+ *   centers it overrides are replaced by modified copies, and the others are shared untouched. Simulations
+ *   never see each other's changes, and run concurrently with each other and with the assignation runs.
+ *
+ * The assignation engines keep the loads of a run in their session, so a simulation is the order assignation
+ * without the database: the same engine, over the same centers and the same chunks of orders, makes the same
+ * choices. The "index" engine, which rebuilds the shared {@link CenterSpatialIndex}, is simulated with the
+ * {@link AssignationKernel}, which chooses the same centers.
+ */
+@Service
+public class AssignationSimulator {
+
+    // Autowiring the CenterRepository bean from the ApplicationContext
+    @Autowired
+    private CenterRepository centerRepository;
+
+    // Autowiring the CenterManagementService bean from the ApplicationContext
+    @Autowired
+    private CenterManagementService centerManagementService;
+
+    // Autowiring the OrderQueryRepository bean from the ApplicationContext
+    @Autowired
+    private OrderQueryRepository orderQueryRepository;
+
+    // Autowiring every AssignationEngine bean from the ApplicationContext
+    @Autowired
+    private List<AssignationEngine> assignationEngines;
+
+    // Autowiring the PlatformTransactionManager bean from the ApplicationContext
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Number of pending orders processed at once, as in the order assignation
+    @Value("${inditex.assignation.chunk-size:1000}")
+    private int chunkSize;
+
+    // Name of the AssignationEngine used by the order assignation
+    @Value("${inditex.assignation.engine:" + IndexAssignationEngine.NAME + "}")
+    private String assignationEngineName;
+
+    // Maximum age of the snapshot of the pending orders (0 to read them for every simulation)
+    @Value("${inditex.simulation.snapshot-ttl:30s}")
+    private Duration snapshotTtl;
+
+    // Read-only transaction in which the centers and the pending orders (through a database cursor) are read
+    private TransactionTemplate readOnlyTransaction;
+
+    // Snapshot of the pending orders, replaced as a whole: by an invalidation, or by a snapshot read meanwhile
+    private final AtomicReference<PendingOrders> pendingOrders = new AtomicReference<>(new PendingOrders(0, null, 0));
+
+    /**
+     * Pending orders, in id ascending order, read at the given time, or null once invalidated.
+     * Never modified once read. The generation is incremented by every invalidation.
+     */
+    private record PendingOrders(long generation, List<Order> orders, long readAt) {
+    }
+
+    /** Prepares the read-only transaction of the centers and the pending order snapshots. */
+    @PostConstruct
+    public void prepareTransaction() {
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Simulates the assignation of every PENDING order with the given scenario.
+     *
+     * The method performs the following steps:
+     * 1. Resolves the engine to simulate: the requested one, or the configured one.
+     * 2. Builds the centers of the scenario: the registered ones with their overrides, plus the hypothetical ones.
+     * 3. Opens a session of the engine over the AVAILABLE centers of the scenario, and assigns the snapshot of the
+     *    pending orders in chunks of {@code inditex.assignation.chunk-size} orders, as the order assignation does.
+     * 4. Reports the outcome of every order, the resulting load of the centers taking orders and the aggregate stats.
+     *
+     * @param simulationRequest the scenario, or null to simulate the assignation with the current centers
+     * @return the {@link SimulationResponse} with the outcomes and statistics of the simulation
+     * @throws ResponseStatusException if the engine, a hypothetical center or an override is invalid (400 Bad Request)
+     */
+    public SimulationResponse simulate(SimulationRequest simulationRequest) {
+        long start = System.nanoTime();
+        SimulationRequest request = simulationRequest != null ? simulationRequest : new SimulationRequest();
+
+        // 1) Resolve the engine
+        String engineName = request.getEngine() != null ? request.getEngine() : assignationEngineName;
+        AssignationEngine engine = getAssignationEngine(engineName);
+
+        // 2) Build the centers of the scenario
+        List<Center> availableCenters = scenarioCenters(request).stream()
+                .filter(center -> "AVAILABLE".equals(center.getStatus()))
+                .toList();
+
+        // 3) Assign the pending orders chunk by chunk
+        List<Order> orders = pendingOrders();
+        AssignationSession session = availableCenters.isEmpty() ? null : engine.open(availableCenters);
+        Center[] assignedCenters = new Center[orders.size()];
+        if (session != null) {
+            for (int from = 0; from < orders.size(); from += chunkSize) {
+                List<Order> chunk = orders.subList(from, Math.min(from + chunkSize, orders.size()));
+                System.arraycopy(session.assignAll(chunk), 0, assignedCenters, from, chunk.size());
+            }
+        }
+
+        // 4) Report the outcomes
+        boolean includeAssignations = !Boolean.FALSE.equals(request.getIncludeAssignations());
+        List<OrderAssignation> orderAssignations = new ArrayList<>(includeAssignations ? orders.size() : 0);
+        Map<Long, Integer> ordersByCenter = new HashMap<>();
+        Map<Long, Center> centersById = new TreeMap<>();
+        int fullOrders = 0;
+        int unsupportedOrders = 0;
+        double totalDistance = 0;
+        double maxDistance = 0;
+        for (int i = 0; i < orders.size(); i++) {
+            Order order = orders.get(i);
+            Center center = assignedCenters[i];
+            OrderAssignation orderAssignation;
+            if (center == null) {
+                boolean supported = session != null && session.supports(order.getSizeMask());
+                if (supported) fullOrders++;
+                else unsupportedOrders++;
+                orderAssignation = new OrderAssignation(null, order.getId(), null, order.getStatus(), supported
+                        ? OrderManagementService.CENTERS_FULL_MESSAGE : OrderManagementService.NO_CENTER_SUPPORTS_MESSAGE);
+            } else {
+                double distance = GeoDistance.calculateDistance(
+                        order.getCoordinates().getLatitude(), order.getCoordinates().getLongitude(),
+                        center.getCoordinates().getLatitude(), center.getCoordinates().getLongitude());
+                totalDistance += distance;
+                maxDistance = Math.max(maxDistance, distance);
+                ordersByCenter.merge(center.getId(), 1, Integer::sum);
+                centersById.putIfAbsent(center.getId(), center);
+                orderAssignation = new OrderAssignation(distance, order.getId(), center.getName(), "ASSIGNED", "Order assigned");
+            }
+            if (includeAssignations) orderAssignations.add(orderAssignation);
+        }
+
+        List<CenterSummary> loadedCenters = new ArrayList<>(centersById.size());
+        centersById.forEach((id, center) -> {
+            CenterSummary summary = CenterSummary.of(center);
+            summary.setCurrentLoad(center.getCurrentLoad() + ordersByCenter.get(id));
+            loadedCenters.add(summary);
+        });
+
+        int assignedOrders = orders.size() - fullOrders - unsupportedOrders;
+        SimulationStats stats = new SimulationStats(
+                engineName,
+                orders.size(),
+                assignedOrders,
+                fullOrders,
+                unsupportedOrders,
+                totalDistance,
+                assignedOrders > 0 ? totalDistance / assignedOrders : null,
+                assignedOrders > 0 ? maxDistance : null,
+                Duration.ofNanos(System.nanoTime() - start).toMillis()
+        );
+        return new SimulationResponse(stats, loadedCenters, orderAssignations);
+    }
+
+    /**
+     * Discards the snapshot of the pending orders, after orders have been created or assigned.
+     * The next simulation reads them again.
+     */
+    public void invalidate() {
+        pendingOrders.updateAndGet(snapshot -> new PendingOrders(snapshot.generation() + 1, null, 0));
+    }
+
+    /**
+     * Returns the snapshot of the pending orders, reading it again if it has been invalidated or has expired.
+     *
+     * @return the pending orders, in id ascending order; shared with the other simulations, never modified
+     */
+    private List<Order> pendingOrders() {
+        PendingOrders snapshot = pendingOrders.get();
+        long now = System.nanoTime();
+        if (snapshot.orders() != null && now - snapshot.readAt() < snapshotTtl.toNanos()) {
+            return snapshot.orders();
+        }
+
+        List<Order> orders = new ArrayList<>();
+        readOnlyTransaction.executeWithoutResult(status -> orderQueryRepository.forEach("PENDING", null, null, summary -> {
+            Order order = new Order();
+            order.setId(summary.getId());
+            order.setCustomerId(summary.getCustomerId());
+            order.setSize(summary.getSize());
+            order.setStatus(summary.getStatus());
+            order.setCoordinates(summary.getCoordinates());
+            orders.add(order);
+        }));
+
+        // Not kept if orders have been created or assigned while reading them: the snapshot has been replaced
+        List<Order> pending = Collections.unmodifiableList(orders);
+        pendingOrders.compareAndSet(snapshot, new PendingOrders(snapshot.generation(), pending, now));
+        return pending;
+    }
+
+    /**
+     * Builds the centers of a scenario: the registered centers, with the overridden ones replaced by
+     * modified copies, followed by the hypothetical centers.
+     *
+     * @param request the scenario
+     * @return the centers of the scenario, owned by the simulation
+     * @throws ResponseStatusException if a hypothetical center or an override is invalid (400 Bad Request)
+     */
+    private List<Center> scenarioCenters(SimulationRequest request) {
+        List<Center> centers = new ArrayList<>(readOnlyTransaction.execute(status -> centerRepository.findAll(Sort.by("id"))));
+
+        // Overrides of the registered centers, applied to copies
+        if (request.getOverrides() != null && !request.getOverrides().isEmpty()) {
+            Map<Long, Integer> positions = new HashMap<>();
+            for (int i = 0; i < centers.size(); i++) {
+                positions.put(centers.get(i).getId(), i);
+            }
+            for (CenterOverride override : request.getOverrides()) {
+                Integer position = override == null ? null : positions.get(override.getCenterId());
+                if (position == null) {
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid override: center not found");
+                }
+                Center center = CenterRegistry.copy(centers.get(position));
+                if (override.getStatus() != null) {
+                    if (!centerManagementService.isValidStatus(override.getStatus())) {
+                        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid override: Invalid status value");
+                    }
+                    center.setStatus(override.getStatus());
+                }
+                if (override.getCurrentLoad() != null) center.setCurrentLoad(override.getCurrentLoad());
+                if (override.getMaxCapacity() != null) center.setMaxCapacity(override.getMaxCapacity());
+                if (center.getCurrentLoad() < 0 || center.getCurrentLoad() > center.getMaxCapacity()) {
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid override: Current load cannot exceed max capacity.");
+                }
+                centers.set(position, center);
+            }
+        }
+
+        // Hypothetical centers, with negative ids so they never collide with the registered ones
+        List<CenterRequest> hypotheticalCenters = request.getHypotheticalCenters() != null
+                ? request.getHypotheticalCenters() : List.of();
+        for (int i = 0; i < hypotheticalCenters.size(); i++) {
+            CenterRequest centerRequest = hypotheticalCenters.get(i);
+            String error = centerManagementService.validateImportedCenter(centerRequest);
+            if (error != null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid hypothetical center " + i + ": " + error);
+            }
+            Center center = new Center();
+            center.setId(-(i + 1L));
+            center.setName(centerRequest.getName());
+            center.setCapacity(centerRequest.getCapacity());
+            center.setStatus(centerRequest.getStatus());
+            center.setCurrentLoad(centerRequest.getCurrentLoad());
+            center.setMaxCapacity(centerRequest.getMaxCapacity());
+            center.setCoordinates(new Coordinates(
+                    centerRequest.getCoordinates().getLatitude(), centerRequest.getCoordinates().getLongitude()));
+            centers.add(center);
+        }
+        return centers;
+    }
+
+    /**
+     * Returns the AssignationEngine simulating the engine with the given name.
+     *
+     * @param engineName the name of the engine
+     * @return the engine, the {@link AssignationKernel} for the "index" one
+     * @throws ResponseStatusException if no engine has the given name (400 Bad Request)
+     */
+    private AssignationEngine getAssignationEngine(String engineName) {
+        String simulatedName = IndexAssignationEngine.NAME.equals(engineName) ? AssignationKernel.NAME : engineName;
+        return assignationEngines.stream()
+                .filter(engine -> engine.name().equals(simulatedName))
+                .findFirst()
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid engine value"));
+    }
+}
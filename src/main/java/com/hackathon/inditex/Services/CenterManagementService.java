@@ -1,16 +1,25 @@
 package com.hackathon.inditex.Services;
 
+import com.hackathon.inditex.DTO.BulkResponse;
+import com.hackathon.inditex.DTO.BulkResult;
 import com.hackathon.inditex.DTO.CenterRequest;
+import com.hackathon.inditex.DTO.CenterSummary;
+import com.hackathon.inditex.DTO.CursorPage;
+import com.hackathon.inditex.Engine.CenterSpatialIndex;
 import com.hackathon.inditex.Entities.Center;
 import com.hackathon.inditex.Entities.Coordinates;
+import com.hackathon.inditex.Repositories.CenterBulkRepository;
 import com.hackathon.inditex.Repositories.CenterRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
-import java.util.List;
-import java.util.Set;
+import java.util.*;
+import java.util.function.Consumer;
 
 /**
  * Service class responsible for managing logistics centers.
@@ -25,6 +34,26 @@ public class CenterManagementService {
     @Autowired
     private CenterRepository centerRepository;
 
+    // Autowiring the CenterBulkRepository bean from the ApplicationContext
+    @Autowired
+    private CenterBulkRepository centerBulkRepository;
+
+    // Autowiring the CenterSpatialIndex bean from the ApplicationContext
+    @Autowired
+    private CenterSpatialIndex centerSpatialIndex;
+
+    // Autowiring the CenterRegistry bean from the ApplicationContext
+    @Autowired
+    private CenterRegistry centerRegistry;
+
+    // Number of centers returned by a page of the center list when no limit is given
+    @Value("${inditex.pagination.default-limit:100}")
+    private int defaultPageLimit;
+
+    // Maximum number of centers returned by a page of the center list
+    @Value("${inditex.pagination.max-limit:1000}")
+    private int maxPageLimit;
+
     // Valid values for the Center#capacity attribute
     private static final Set<String> VALID_CAPACITIES = Set.of(
             "B", "M", "S", "BM", "BS", "MS", "BMS"
@@ -61,7 +90,7 @@ public class CenterManagementService {
         }
 
         // Verify there is no center in the given coordinates
-        boolean exists = centerRepository.existsByCoordinatesLatitudeAndCoordinatesLongitude(lat, lon);
+        boolean exists = centerRegistry.existsByCoordinates(lat, lon);
         if (exists) {
             throw new RuntimeException("There is already a logistics center in that position.");
         }
@@ -80,29 +109,146 @@ public class CenterManagementService {
         newCenter.setMaxCapacity(centerRequest.getMaxCapacity());
         newCenter.setCoordinates(centerRequest.getCoordinates());
 
-        // Save the new Center
-        centerRepository.save(newCenter);
+        // Save the new Center and make it visible to the order assignation once committed
+        saveCenter(newCenter, centerRepository::save);
+        centerRegistry.put(newCenter);
+        CenterRegistry.afterCommit(() -> centerSpatialIndex.upsert(newCenter));
 
         // Return success message
         return "Logistics center created successfully.";
     }
 
     /**
-     * Retrieves all registered logistics centers.
+     * Creates or updates many logistics centers at once, identifying them by their coordinates.
      *
-     * @return a list with all currently registered logistics centers
+     * The method performs the following steps:
+     * 1. Validates every row in a single pass (capacity, status, load and coordinates), rejecting
+     *    the invalid ones and the ones whose coordinates were already given by a previous row.
+     * 2. Looks up which coordinates already hold a center, with set-based queries.
+     * 3. Inserts the new centers and updates the existing ones with JDBC batches,
+     *    all in a single transaction.
+     * 4. Once committed, makes the centers visible to the registry and the order assignation.
+     *
+     * @param centerRequests the payloads containing the details of each center
+     * @return a {@link BulkResponse} with the outcome of each row: the created or updated center id,
+     * or the rejection reason
+     */
+    @Transactional
+    public BulkResponse importCenters(List<CenterRequest> centerRequests) {
+        return importCenters(centerRequests, Map.of());
+    }
+
+    /**
+     * Creates or updates many logistics centers at once, as {@link #importCenters(List)} does, some rows of
+     * which could not even be read (e.g. a malformed number in a CSV line).
+     *
+     * @param centerRequests the payloads containing the details of each center
+     * @param malformedRows the reason why each unreadable row is rejected, by position
+     * @return a {@link BulkResponse} with the outcome of each row: the created or updated center id,
+     * or the rejection reason
+     */
+    @Transactional
+    public BulkResponse importCenters(List<CenterRequest> centerRequests, Map<Integer, String> malformedRows) {
+        List<BulkResult> results = new ArrayList<>(centerRequests.size());
+        // Valid rows, by coordinates: the first row with some coordinates wins
+        Map<Coordinates, Center> importedCenters = new LinkedHashMap<>();
+        Map<Coordinates, BulkResult> importedResults = new HashMap<>();
+
+        // 1) Validate every row, and detect the coordinate collisions inside the request
+        for (int i = 0; i < centerRequests.size(); i++) {
+            CenterRequest centerRequest = centerRequests.get(i);
+            String error = malformedRows.containsKey(i) ? malformedRows.get(i) : validateImportedCenter(centerRequest);
+            Coordinates coordinates = error == null ? new Coordinates(
+                    centerRequest.getCoordinates().getLatitude(), centerRequest.getCoordinates().getLongitude()) : null;
+            if (error == null && importedCenters.containsKey(coordinates)) {
+                error = "There is already a logistics center in that position in the request.";
+            }
+            if (error != null) {
+                results.add(new BulkResult(i, null, "REJECTED", error));
+                continue;
+            }
+
+            Center center = new Center();
+            center.setName(centerRequest.getName());
+            center.setCapacity(centerRequest.getCapacity());
+            center.setStatus(centerRequest.getStatus());
+            center.setCurrentLoad(centerRequest.getCurrentLoad());
+            center.setMaxCapacity(centerRequest.getMaxCapacity());
+            center.setCoordinates(coordinates);
+
+            BulkResult result = new BulkResult(i, null, null, null);
+            results.add(result);
+            importedCenters.put(coordinates, center);
+            importedResults.put(coordinates, result);
+        }
+
+        // 2) Find the centers already registered in the same coordinates, with the load each update replaces
+        Map<Coordinates, Center> existingCenters = centerBulkRepository.findByCoordinates(importedCenters.keySet());
+
+        List<Center> newCenters = new ArrayList<>();
+        List<Center> updatedCenters = new ArrayList<>();
+        Map<Long, Integer> previousLoads = new HashMap<>();
+        importedCenters.forEach((coordinates, center) -> {
+            Center existing = existingCenters.get(coordinates);
+            BulkResult result = importedResults.get(coordinates);
+            if (existing == null) {
+                newCenters.add(center);
+                result.setStatus("CREATED");
+                result.setMessage("Logistics center created successfully.");
+            } else {
+                center.setId(existing.getId());
+                previousLoads.put(existing.getId(), existing.getCurrentLoad());
+                updatedCenters.add(center);
+                result.setStatus("UPDATED");
+                result.setMessage("Logistics center updated successfully.");
+            }
+        });
+
+        // 3) Write the changes as JDBC batches
+        centerBulkRepository.insertAll(newCenters);
+        centerBulkRepository.updateAll(updatedCenters);
+        importedCenters.forEach((coordinates, center) -> importedResults.get(coordinates).setId(center.getId()));
+
+        // 4) Make the centers visible to the registry and the order assignation once committed
+        importedCenters.values().forEach(centerRegistry::put);
+        CenterRegistry.afterCommit(() -> {
+            newCenters.forEach(centerSpatialIndex::upsert);
+            updatedCenters.forEach(center -> centerSpatialIndex.merge(center, previousLoads.get(center.getId())));
+        });
+
+        return new BulkResponse(importedCenters.size(), results.size() - importedCenters.size(), results);
+    }
+
+    /**
+     * Retrieves a page of the registered logistics centers, in id ascending order.
+     *
+     * @param status the status to filter centers by, or null for every center
+     * @param after the id of the last center of the previous page, or null for the first page
+     * @param limit the maximum number of centers to return, or null for {@code inditex.pagination.default-limit}
+     * @return the centers of the page, with the cursor of the next page if there are more centers
+     * @throws ResponseStatusException if the status or the limit is invalid (400 Bad Request)
      * @throws RuntimeException if no centers are registered
      */
-    public List<Center> readAllCenters(){
-        List<Center> centerList= centerRepository.findAll();
+    public CursorPage<CenterSummary> readCenters(String status, Long after, Integer limit){
+        int pageLimit = pageLimit(limit);
+
+        // Verify the status value is valid
+        if (status != null && !isValidStatus(status)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,"Invalid status value");
+        }
+
+        // Read one more center than requested, to know whether there is a next page
+        List<Center> centerList = centerRegistry.findPage(status, after == null ? 0L : after, pageLimit + 1);
 
-        // Verify the list is not empty
-        if (centerList.isEmpty()) {
+        // Verify there is any center at all
+        if (centerList.isEmpty() && status == null && after == null) {
             throw new RuntimeException("There is no logistics center registered at this time");
         }
 
-        // Return the list of centers
-        return centerList;
+        // Return the page of centers
+        List<CenterSummary> items = centerList.stream().limit(pageLimit).map(CenterSummary::of).toList();
+        Long next = centerList.size() > pageLimit ? items.get(items.size() - 1).getId() : null;
+        return new CursorPage<>(items, next);
     }
 
     /**
@@ -116,16 +262,22 @@ public class CenterManagementService {
      * @throws RuntimeException if the new coordinates are already occupied by an existing center
      * or currentLoad exceeds maxCapacity (500 INTERNAL SERVER ERROR)
      */
+    @Transactional
     public String updateCenter(Long id, CenterRequest centerRequest) {
 
-        // Object where changes will be applied
-        Center center = centerRepository.findById(id)
+        // Object where changes will be applied, locked so no order assignation changes its load meanwhile
+        Center center = centerRepository.findByIdForUpdate(id)
                 .orElseThrow(() -> new ResponseStatusException(
                         HttpStatus.NOT_FOUND, "Center not found."));
 
+        int previousLoad = center.getCurrentLoad() != null ? center.getCurrentLoad() : 0;
         copyCenterRequestToCenter(centerRequest, center);
 
-        centerRepository.save(center);
+        // Visible to the order assignation once committed: a failed commit leaves the index untouched,
+        // and the loads reserved meanwhile by a running assignation are kept
+        saveCenter(center, centerRepository::saveAndFlush);
+        centerRegistry.put(center);
+        CenterRegistry.afterCommit(() -> centerSpatialIndex.merge(center, previousLoad));
         // Return success message
         return "Logistics center updated successfully.";
     }
@@ -147,11 +299,29 @@ public class CenterManagementService {
                         HttpStatus.NOT_FOUND, "Center not found."));
 
         centerRepository.delete(center);
+        centerRegistry.evict(center.getId());
+        CenterRegistry.afterCommit(() -> centerSpatialIndex.remove(center.getId()));
         // Return success message
         return "Logistics center deleted successfully.";
     }
 
 
+    /**
+     * Saves a created or updated center, reporting a center already registered in its coordinates (by another
+     * instance, since the {@link CenterRegistry} was read) the same way as one found by the registry.
+     *
+     * @param center the center to save
+     * @param save the repository method writing it to the database right away
+     * @throws RuntimeException if a center already exist in the coordinates of the center (500 Internal Server Error)
+     */
+    private void saveCenter(Center center, Consumer<Center> save) {
+        try {
+            save.accept(center);
+        } catch (DataIntegrityViolationException e) {
+            throw new RuntimeException("There is already a logistics center in that position.");
+        }
+    }
+
     /**
      * Copies non-null fields from the given CenterRequest to the target Center.
      * Performs validation on capacity, status, currentLoad, and coordinates.
@@ -198,28 +368,51 @@ public class CenterManagementService {
         // Handle coordinates - verify if the coordinates have been modified
         Coordinates newCoords = centerRequest.getCoordinates();
         Coordinates currentCoords = updatedCenter.getCoordinates();
-        boolean hasCoordinatesChanged = false;
 
         if (newCoords != null) {
-            if (newCoords.getLatitude() != null && !newCoords.getLatitude().equals(currentCoords.getLatitude())) {
-                currentCoords.setLatitude(newCoords.getLatitude());
-                hasCoordinatesChanged = true;
-            }
-            if (newCoords.getLongitude() != null && !newCoords.getLongitude().equals(currentCoords.getLongitude())) {
-                currentCoords.setLongitude(newCoords.getLongitude());
-                hasCoordinatesChanged = true;
+            Double latitude = newCoords.getLatitude() != null ? newCoords.getLatitude() : currentCoords.getLatitude();
+            Double longitude = newCoords.getLongitude() != null ? newCoords.getLongitude() : currentCoords.getLongitude();
+            boolean hasCoordinatesChanged = !latitude.equals(currentCoords.getLatitude())
+                    || !longitude.equals(currentCoords.getLongitude());
+
+            // If they have, check the news coordinates don't overlap with an existing center. Checked before
+            // modifying the center, so the query doesn't flush the new coordinates
+            if (hasCoordinatesChanged && centerRegistry.existsByCoordinates(latitude, longitude)) {
+                throw new RuntimeException("There is already a logistics center in that position.");
             }
+            currentCoords.setLatitude(latitude);
+            currentCoords.setLongitude(longitude);
         }
+    }
 
-        // If they have, check the news coordinates don't overlap with an existing center
-        if (hasCoordinatesChanged) {
-            boolean exists = centerRepository.existsByCoordinatesLatitudeAndCoordinatesLongitude(
-                    currentCoords.getLatitude(), currentCoords.getLongitude()
-            );
-            if (exists) {
-                throw new RuntimeException("There is already a logistics center in that position.");
-            }
+    /**
+     * Validates a row of the bulk center import, or a hypothetical center of an assignation simulation,
+     * with the same rules as {@link #createNewCenter}.
+     *
+     * @param centerRequest the payload containing the center details
+     * @return the reason why the row is invalid, or {@code null} if it is valid
+     */
+    String validateImportedCenter(CenterRequest centerRequest) {
+        if (centerRequest == null) {
+            return "Empty center request";
+        }
+        if (!isValidCapacity(centerRequest.getCapacity())) {
+            return "Invalid capacity value";
+        }
+        if (!isValidStatus(centerRequest.getStatus())) {
+            return "Invalid status value";
+        }
+        if (centerRequest.getCurrentLoad() == null || centerRequest.getMaxCapacity() == null) {
+            return "Empty currentLoad or maxCapacity values";
+        }
+        if (centerRequest.getCurrentLoad() > centerRequest.getMaxCapacity()) {
+            return "Current load cannot exceed max capacity.";
         }
+        Coordinates coordinates = centerRequest.getCoordinates();
+        if (coordinates == null || coordinates.getLatitude() == null || coordinates.getLongitude() == null) {
+            return "Empty coordinates values";
+        }
+        return null;
     }
 
     /**
@@ -238,7 +431,22 @@ public class CenterManagementService {
      * @param status the status value to validate
      * @return true if the status is non-null and one of the allowed values; false otherwise
      */
-    private boolean isValidStatus(String status) {
+    boolean isValidStatus(String status) {
         return status != null && VALID_STATUS.contains(status);
     }
+
+    /**
+     * Resolves the number of centers of a page of the center list.
+     *
+     * @param limit the requested limit, or null for the default one
+     * @return the number of centers of the page
+     * @throws ResponseStatusException if the limit is not between 1 and {@code inditex.pagination.max-limit} (400 Bad Request)
+     */
+    private int pageLimit(Integer limit) {
+        if (limit == null) return defaultPageLimit;
+        if (limit < 1 || limit > maxPageLimit) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid limit value");
+        }
+        return limit;
+    }
 }
@@ -0,0 +1,288 @@
+package com.hackathon.inditex.Services;
+
+import com.hackathon.inditex.Entities.Center;
+import com.hackathon.inditex.Entities.Coordinates;
+import com.hackathon.inditex.Repositories.CenterRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory registry of every logistics center, so that reading the centers and checking for
+ * duplicate coordinates don't need a database query.
+ *
+ * The registry is on by default; with {@code inditex.center-cache.enabled=false} every read is delegated
+ * to the {@link CenterRepository}. Once on, it is warmed with all the centers once the
+ * application is ready, and then kept coherent by write-through: the services hand every saved or deleted
+ * center to it. Changes made inside a transaction are applied once the transaction commits, so a rolled back
+ * assignation run doesn't leave its loads in the registry, and the changes committed before the registry is
+ * warm are replayed once it is.
+ *
+ * Writes made through other application instances never reach it: the registry is read again from the
+ * database once it is older than {@code inditex.center-cache.refresh-interval}, by the first read made
+ * outside a transaction (reads inside one go to the database meanwhile, so that a reload never sees
+ * uncommitted changes). Meanwhile, a center created by another instance at coordinates the registry reports
+ * as free is rejected by the unique constraint of the coordinates, with the same error as a duplicate found
+ * in memory.
+ *
+ * The registry stores and returns copies of the entities: callers can modify the returned centers
+ * without affecting it.
+ *
+ * Reads answered from memory and from the database are reported as the
+ * {@code inditex.center.registry.requests} metric, tagged with {@code result=hit} or {@code result=miss}.
+ */
+@Component
+public class CenterRegistry {
+
+    // Autowiring the CenterRepository bean from the ApplicationContext
+    @Autowired
+    private CenterRepository centerRepository;
+
+    // Autowiring the MeterRegistry bean from the ApplicationContext
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Whether the centers are kept in memory, or every read goes to the database
+    @Value("${inditex.center-cache.enabled:true}")
+    private boolean enabled;
+
+    // Maximum age of the centers in memory, before they are read again from the database
+    @Value("${inditex.center-cache.refresh-interval:5s}")
+    private Duration refreshInterval;
+
+    // Ids sorted ascending, so the centers are returned in the same order as the database
+    private final NavigableMap<Long, Center> byId = new TreeMap<>();
+    private final Map<String, NavigableSet<Long>> byStatus = new HashMap<>();
+    private final Map<Coordinates, Long> byCoordinate = new HashMap<>();
+
+    private boolean warm;
+    private long loadedAt;
+
+    // Changes committed before the registry is warm, replayed once it is
+    private final List<Runnable> pendingChanges = new ArrayList<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /** Registers the hit and miss counters and the size gauge. */
+    @PostConstruct
+    public void bindMetrics() {
+        FunctionCounter.builder("inditex.center.registry.requests", hits, LongAdder::sum)
+                .tag("result", "hit")
+                .description("Center reads, answered from memory (hit) or from the database (miss)")
+                .register(meterRegistry);
+        FunctionCounter.builder("inditex.center.registry.requests", misses, LongAdder::sum)
+                .tag("result", "miss")
+                .description("Center reads, answered from memory (hit) or from the database (miss)")
+                .register(meterRegistry);
+        Gauge.builder("inditex.center.registry.size", this, CenterRegistry::size)
+                .description("Centers held in memory")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Loads every center from the database once the application has started, then replays the changes
+     * committed meanwhile. Also reloads a warm registry.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void warmUp() {
+        if (!enabled) return;
+
+        load();
+        pendingChanges.forEach(Runnable::run);
+        pendingChanges.clear();
+        warm = true;
+    }
+
+    /**
+     * Retrieves all registered centers, in id ascending order.
+     *
+     * @return copies of every center
+     */
+    public synchronized List<Center> findAll() {
+        if (!fresh()) {
+            misses.increment();
+            return centerRepository.findAll();
+        }
+        hits.increment();
+        return byId.values().stream().map(CenterRegistry::copy).toList();
+    }
+
+    /**
+     * Retrieves the centers with the given status, in id ascending order.
+     *
+     * @param status the status to filter centers by
+     * @return copies of the matching centers; empty list if none found
+     */
+    public synchronized List<Center> findByStatus(String status) {
+        if (!fresh()) {
+            misses.increment();
+            return centerRepository.findByStatus(status);
+        }
+        hits.increment();
+        return byStatus.getOrDefault(status, Collections.emptyNavigableSet()).stream()
+                .map(id -> copy(byId.get(id)))
+                .toList();
+    }
+
+    /**
+     * Retrieves a page of centers, optionally filtered by status, with an id greater than the
+     * given one, in id ascending order.
+     *
+     * @param status the status to filter centers by, or null for every center
+     * @param afterId the exclusive lower bound for the center ids
+     * @param limit the maximum number of centers to retrieve
+     * @return copies of up to {@code limit} matching centers; empty list if none found
+     */
+    public synchronized List<Center> findPage(String status, long afterId, int limit) {
+        if (!fresh()) {
+            misses.increment();
+            return status == null
+                    ? centerRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(limit))
+                    : centerRepository.findByStatusAndIdGreaterThanOrderByIdAsc(status, afterId, Limit.of(limit));
+        }
+        hits.increment();
+        Collection<Long> ids = status == null
+                ? byId.tailMap(afterId, false).keySet()
+                : byStatus.getOrDefault(status, Collections.emptyNavigableSet()).tailSet(afterId, false);
+        return ids.stream().limit(limit).map(id -> copy(byId.get(id))).toList();
+    }
+
+    /**
+     * Checks if a center exists at the given latitude and longitude.
+     *
+     * Answered from memory while the registry is fresh: a center created at the same coordinates through
+     * another instance since the last refresh is rejected by the unique constraint of the coordinates instead.
+     *
+     * @param latitude the latitude of the center
+     * @param longitude the longitude of the center
+     * @return {@code true} if a center exists at the given coordinates, {@code false} otherwise
+     */
+    public synchronized boolean existsByCoordinates(Double latitude, Double longitude) {
+        if (!fresh()) {
+            misses.increment();
+            return centerRepository.existsByCoordinatesLatitudeAndCoordinatesLongitude(latitude, longitude);
+        }
+        hits.increment();
+        return byCoordinate.containsKey(new Coordinates(latitude, longitude));
+    }
+
+    /**
+     * Stores the current state of a saved center, replacing any previous version of it.
+     * Applied after the commit when called inside a transaction.
+     *
+     * @param center the saved center, with its id
+     */
+    public void put(Center center) {
+        Center snapshot = copy(center);
+        afterCommit(() -> apply(() -> {
+            unindex(snapshot.getId());
+            index(snapshot);
+        }));
+    }
+
+    /**
+     * Removes a deleted center. Applied after the commit when called inside a transaction.
+     *
+     * @param id the id of the deleted center
+     */
+    public void evict(Long id) {
+        afterCommit(() -> apply(() -> unindex(id)));
+    }
+
+    private synchronized int size() {
+        return byId.size();
+    }
+
+    /**
+     * Tells whether the reads can be answered from memory, reloading the registry first if it is older than
+     * {@code inditex.center-cache.refresh-interval} and no transaction is active.
+     */
+    private boolean fresh() {
+        if (!warm) return false;
+        if (System.nanoTime() - loadedAt < refreshInterval.toNanos()) return true;
+        if (TransactionSynchronizationManager.isActualTransactionActive()) return false;
+
+        load();
+        return true;
+    }
+
+    /** Replaces the centers in memory with those of the database. */
+    private void load() {
+        byId.clear();
+        byStatus.clear();
+        byCoordinate.clear();
+        centerRepository.findAll().stream().map(CenterRegistry::copy).forEach(this::index);
+        loadedAt = System.nanoTime();
+    }
+
+    /** Applies a committed change, or keeps it until the registry is warm. */
+    private synchronized void apply(Runnable change) {
+        if (!enabled) return;
+        if (warm) change.run();
+        else pendingChanges.add(change);
+    }
+
+    /** Adds a center to every lookup map. The center must be a copy owned by the registry. */
+    private void index(Center center) {
+        byId.put(center.getId(), center);
+        byStatus.computeIfAbsent(center.getStatus(), status -> new TreeSet<>()).add(center.getId());
+        if (center.getCoordinates() != null) {
+            byCoordinate.put(center.getCoordinates(), center.getId());
+        }
+    }
+
+    private void unindex(Long id) {
+        Center previous = byId.remove(id);
+        if (previous == null) return;
+
+        NavigableSet<Long> ids = byStatus.get(previous.getStatus());
+        if (ids != null) ids.remove(id);
+        if (previous.getCoordinates() != null) {
+            byCoordinate.remove(previous.getCoordinates(), id);
+        }
+    }
+
+    /** Runs the change once the current transaction commits, or right away if there is none. */
+    static void afterCommit(Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                change.run();
+            }
+        });
+    }
+
+    /** Copies a center, including its coordinates, so the copy shares no mutable state with it. */
+    static Center copy(Center center) {
+        Center copy = new Center();
+        copy.setId(center.getId());
+        copy.setName(center.getName());
+        copy.setCapacity(center.getCapacity());
+        copy.setStatus(center.getStatus());
+        copy.setCurrentLoad(center.getCurrentLoad());
+        copy.setMaxCapacity(center.getMaxCapacity());
+        if (center.getCoordinates() != null) {
+            copy.setCoordinates(new Coordinates(
+                    center.getCoordinates().getLatitude(), center.getCoordinates().getLongitude()));
+        }
+        return copy;
+    }
+}
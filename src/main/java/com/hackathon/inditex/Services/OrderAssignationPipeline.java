@@ -0,0 +1,124 @@
+package com.hackathon.inditex.Services;
+
+import com.hackathon.inditex.DTO.OrderAssignation;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Continuous order assignation: assigns every new order right after its creation, instead of
+ * waiting for the next POST {@code /api/orders/order-assignations}.
+ *
+ * Created orders are put in a bounded queue, drained by a single worker thread which assigns them
+ * in batches of up to {@code batch-size} orders with the current center loads. Each batch runs in its
+ * own transaction, serialized with the regular order assignations. While one of them is in progress, the
+ * batch is kept by the worker, without holding a database connection, and retried every
+ * {@code lock-timeout} along with the orders created meanwhile.
+ *
+ * The pipeline is disabled by default ({@code inditex.assignation.continuous.enabled}). Orders that
+ * can't be queued because the queue is full, or that can't be assigned (no center with free
+ * capacity, or an error), simply remain PENDING: the order assignation endpoint catches them up.
+ */
+@Slf4j
+@Component
+public class OrderAssignationPipeline {
+
+    // Autowiring the OrderManagementService bean from the ApplicationContext
+    @Autowired
+    private OrderManagementService orderManagementService;
+
+    // Whether new orders are assigned as soon as they are created
+    @Value("${inditex.assignation.continuous.enabled:false}")
+    private boolean enabled;
+
+    // Whether the worker is a virtual thread instead of a platform one
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    // Maximum number of created orders waiting to be assigned
+    @Value("${inditex.assignation.continuous.queue-capacity:10000}")
+    private int queueCapacity;
+
+    // Maximum number of orders assigned in a single transaction
+    @Value("${inditex.assignation.continuous.batch-size:100}")
+    private int batchSize;
+
+    // Maximum time a batch waits for the order assignation in progress before being retried
+    @Value("${inditex.assignation.continuous.lock-timeout:50ms}")
+    private Duration lockTimeout;
+
+    private BlockingQueue<Long> queue;
+    private Thread worker;
+
+    /** Starts the worker thread when the pipeline is enabled, a virtual one when {@code spring.threads.virtual.enabled} is set. */
+    @PostConstruct
+    public void start() {
+        if (!enabled) return;
+
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        Thread.Builder threads = virtualThreads ? Thread.ofVirtual() : Thread.ofPlatform().daemon();
+        worker = threads.name("order-assignation-pipeline").start(this::run);
+    }
+
+    /** Stops the worker thread. Orders still queued remain PENDING. */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (worker == null) return;
+
+        worker.interrupt();
+        worker.join();
+    }
+
+    /**
+     * Queues a created order to be assigned.
+     *
+     * @param orderId the id of the created order
+     * @return {@code true} if the order has been queued, {@code false} if the pipeline is disabled or full
+     */
+    public boolean submit(Long orderId) {
+        if (!enabled) return false;
+
+        if (!queue.offer(orderId)) {
+            log.warn("Order assignation queue full, order {} remains PENDING", orderId);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Worker loop: waits for a created order, then assigns it along with every order queued after it. While
+     * an order assignation is in progress, the batch is retried, topped up with the orders created meanwhile.
+     */
+    private void run() {
+        List<Long> batch = new ArrayList<>(batchSize);
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                batch.add(queue.take());
+                queue.drainTo(batch, batchSize - 1);
+
+                while (!orderManagementService.orderAssignation(batch, this::logAssignation, lockTimeout)) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                log.warn("Continuous order assignation failed, orders {} remain PENDING", batch, e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void logAssignation(OrderAssignation orderAssignation) {
+        log.debug("Order {}: {}", orderAssignation.getOrderId(), orderAssignation.getMessage());
+    }
+}
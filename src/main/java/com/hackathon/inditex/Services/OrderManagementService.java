@@ -1,20 +1,44 @@
 package com.hackathon.inditex.Services;
 
 import com.hackathon.inditex.DTO.AssignationResponse;
+import com.hackathon.inditex.DTO.BulkResponse;
+import com.hackathon.inditex.DTO.BulkResult;
+import com.hackathon.inditex.DTO.CursorPage;
 import com.hackathon.inditex.DTO.OrderAssignation;
 import com.hackathon.inditex.DTO.OrderRequest;
 import com.hackathon.inditex.DTO.OrderResponse;
+import com.hackathon.inditex.DTO.OrderSummary;
+import com.hackathon.inditex.Engine.AssignationEngine;
+import com.hackathon.inditex.Engine.AssignationSession;
+import com.hackathon.inditex.Engine.GeoDistance;
+import com.hackathon.inditex.Engine.IndexAssignationEngine;
 import com.hackathon.inditex.Entities.Center;
 import com.hackathon.inditex.Entities.Coordinates;
 import com.hackathon.inditex.Entities.Order;
 import com.hackathon.inditex.Repositories.CenterRepository;
+import com.hackathon.inditex.Repositories.OrderBulkRepository;
+import com.hackathon.inditex.Repositories.OrderQueryRepository;
 import com.hackathon.inditex.Repositories.OrderRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
 
 /**
  * Service class responsible for managing orders.
@@ -33,11 +57,77 @@ public class OrderManagementService {
     @Autowired
     private CenterRepository centerRepository;
 
+    // Autowiring the OrderBulkRepository bean from the ApplicationContext
+    @Autowired
+    private OrderBulkRepository orderBulkRepository;
+
+    // Autowiring the OrderQueryRepository bean from the ApplicationContext
+    @Autowired
+    private OrderQueryRepository orderQueryRepository;
+
+    // Autowiring the CenterRegistry bean from the ApplicationContext
+    @Autowired
+    private CenterRegistry centerRegistry;
+
+    // Autowiring the OrderAssignationPipeline bean from the ApplicationContext
+    @Autowired
+    private OrderAssignationPipeline orderAssignationPipeline;
+
+    // Autowiring every AssignationEngine bean from the ApplicationContext
+    @Autowired
+    private List<AssignationEngine> assignationEngines;
+
+    // Autowiring the AssignationMetrics bean from the ApplicationContext
+    @Autowired
+    private AssignationMetrics assignationMetrics;
+
+    // Autowiring the AssignationSimulator bean from the ApplicationContext
+    @Autowired
+    private AssignationSimulator assignationSimulator;
+
+    // Autowiring the TransactionTemplate bean from the ApplicationContext
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Number of pending orders read and written at once by the order assignation
+    @Value("${inditex.assignation.chunk-size:1000}")
+    private int chunkSize;
+
+    // Number of orders returned by a page of the order list when no limit is given
+    @Value("${inditex.pagination.default-limit:100}")
+    private int defaultPageLimit;
+
+    // Maximum number of orders returned by a page of the order list
+    @Value("${inditex.pagination.max-limit:1000}")
+    private int maxPageLimit;
+
+    // Name of the AssignationEngine used by the order assignation
+    @Value("${inditex.assignation.engine:" + IndexAssignationEngine.NAME + "}")
+    private String assignationEngineName;
+
+    // Serializes the assignation runs of this instance, which share the state of the assignation engines
+    private final ReentrantLock assignationLock = new ReentrantLock();
+
+    // Number of times a chunk is assigned before giving up on lock conflicts
+    private static final int CHUNK_ATTEMPTS = 3;
+
     // Valid values for the Order#size attribute
     private static final Set<String> VALID_SIZES = Set.of(
             "B", "M", "S"
     );
 
+    // Valid values for the Order#status attribute
+    private static final Set<String> VALID_STATUS = Set.of(
+            "PENDING", "ASSIGNED"
+    );
+
+    // Messages of the orders which can't be assigned
+    static final String CENTERS_FULL_MESSAGE = "All centers are at maximum capacity.";
+    static final String NO_CENTER_SUPPORTS_MESSAGE = "No available centers support the order type.";
+
     // Initial creation value for the Order#status attribute
     private static final String INITIAL_ORDER_STATUS = "PENDING";
 
@@ -54,14 +144,12 @@ public class OrderManagementService {
         // validates if request is invalid: missing customerId, invalid size, or missing coordinates
         validateOrderRequest(orderRequest);
 
-        Order newOrder = new Order();
-        newOrder.setCustomerId(orderRequest.getCustomerId());
-        newOrder.setSize(orderRequest.getSize());
-        newOrder.setStatus(INITIAL_ORDER_STATUS);
-        newOrder.setCoordinates(orderRequest.getCoordinates());
+        Order newOrder = toNewOrder(orderRequest);
 
-        // Save the new Order in the database
+        // Save the new Order in the database, and assign it right away if the continuous assignation is enabled
         orderRepository.save(newOrder);
+        assignationSimulator.invalidate();
+        orderAssignationPipeline.submit(newOrder.getId());
 
         return new OrderResponse(
                 newOrder.getId(),
@@ -75,21 +163,120 @@ public class OrderManagementService {
     }
 
     /**
-     * Retrieves all registered orders.
+     * Creates many orders at once, validating each of them with the same rules as {@link #createNewOrder}.
+     *
+     * Invalid rows are rejected individually, without preventing the creation of the valid ones, which
+     * are inserted with multi-row statements (see {@link OrderBulkRepository}) in a single transaction.
+     *
+     * @param orderRequests the payloads containing the details of each order
+     * @return a {@link BulkResponse} with the outcome of each row: the created order id, or the rejection reason
+     */
+    @Transactional
+    public BulkResponse createNewOrders(List<OrderRequest> orderRequests) {
+        final String SUCCESS_MESSAGE = "Order created successfully in PENDING status.";
+
+        List<BulkResult> results = new ArrayList<>(orderRequests.size());
+        List<Order> newOrders = new ArrayList<>(orderRequests.size());
+        List<BulkResult> createdResults = new ArrayList<>(orderRequests.size());
+
+        for (int i = 0; i < orderRequests.size(); i++) {
+            OrderRequest orderRequest = orderRequests.get(i);
+            try {
+                if (orderRequest == null) {
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Empty order request");
+                }
+                validateOrderRequest(orderRequest);
+            } catch (ResponseStatusException e) {
+                results.add(new BulkResult(i, null, "REJECTED", e.getReason()));
+                continue;
+            }
+
+            BulkResult result = new BulkResult(i, null, "CREATED", SUCCESS_MESSAGE);
+            results.add(result);
+            createdResults.add(result);
+            newOrders.add(toNewOrder(orderRequest));
+        }
+
+        // Insert the valid orders and report their generated ids
+        orderBulkRepository.insertAll(newOrders);
+        for (int i = 0; i < newOrders.size(); i++) {
+            createdResults.get(i).setId(newOrders.get(i).getId());
+        }
+
+        // Once committed, the orders are visible to the continuous assignation
+        List<Long> newOrderIds = newOrders.stream().map(Order::getId).toList();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                assignationSimulator.invalidate();
+                newOrderIds.forEach(orderAssignationPipeline::submit);
+            }
+        });
+
+        return new BulkResponse(newOrders.size(), results.size() - newOrders.size(), results);
+    }
+
+    /**
+     * Retrieves a page of the registered orders, in id ascending order.
+     * The orders are read as {@link OrderSummary} DTOs, without loading the Order entities.
      *
-     * @return a list of all currently registered orders
+     * @param status the status to filter orders by, or null
+     * @param assignedCenter the name of the assigned center to filter orders by, or null
+     * @param customerId the customer to filter orders by, or null
+     * @param after the id of the last order of the previous page, or null for the first page
+     * @param limit the maximum number of orders to return, or null for {@code inditex.pagination.default-limit}
+     * @return the orders of the page, with the cursor of the next page if there are more orders
+     * @throws ResponseStatusException if the status or the limit is invalid (400 Bad Request)
      * @throws RuntimeException if no orders are registered in the system
      */
-    public List<Order> readAllOrders(){
-        List<Order> orderList= orderRepository.findAll();
+    public CursorPage<OrderSummary> readOrders(String status, String assignedCenter, Long customerId, Long after, Integer limit){
+        int pageLimit = pageLimit(limit);
+
+        // Verify the status value is valid
+        if (status != null && !isValidStatus(status)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,"Invalid status value");
+        }
+
+        // Read one more order than requested, to know whether there is a next page
+        List<OrderSummary> orderList = orderQueryRepository.findPage(
+                status, assignedCenter, customerId, after == null ? 0L : after, pageLimit + 1);
 
-        // Verify the list is not empty
-        if (orderList.isEmpty()) {
+        // Verify there is any order at all
+        boolean isFiltered = status != null || assignedCenter != null || customerId != null;
+        if (orderList.isEmpty() && !isFiltered && after == null) {
             throw new RuntimeException("There is no orders registered at this time");
         }
 
-        // Return the list of centers
-        return orderList;
+        // Return the page of orders
+        if (orderList.size() <= pageLimit) {
+            return new CursorPage<>(orderList, null);
+        }
+        List<OrderSummary> items = orderList.subList(0, pageLimit);
+        return new CursorPage<>(items, items.get(items.size() - 1).getId());
+    }
+
+    /**
+     * Exports every registered order matching the given filters, in id ascending order.
+     *
+     * The orders are streamed one at a time from a forward-only database cursor straight into
+     * {@link OrderSummary} DTOs, and handed to the consumer as they are read: neither the Order
+     * entities nor the whole list are ever held in memory. The read-only transaction keeps the
+     * cursor open for the whole export.
+     *
+     * @param status the status to filter orders by, or null
+     * @param assignedCenter the name of the assigned center to filter orders by, or null
+     * @param customerId the customer to filter orders by, or null
+     * @param consumer the consumer of each exported order, e.g. writing it to the response
+     * @throws ResponseStatusException if the status is invalid (400 Bad Request)
+     */
+    @Transactional(readOnly = true)
+    public void exportOrders(String status, String assignedCenter, Long customerId, Consumer<OrderSummary> consumer){
+        // Verify the status value is valid
+        if (status != null && !isValidStatus(status)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,"Invalid status value");
+        }
+
+        orderQueryRepository.forEach(status, assignedCenter, customerId, consumer);
     }
 
     /**
@@ -102,176 +289,454 @@ public class OrderManagementService {
         // List of order assignments
         List<OrderAssignation> orderAssignations = new ArrayList<>();
 
-        List<Order> pendingOrderList = orderRepository.findByStatusOrderByIdAsc("PENDING");
-        List<Center> centerList = centerRepository.findByStatus("AVAILABLE");
-
-        if(pendingOrderList.isEmpty()) {
-            // There is no pending orders
-            throw new RuntimeException("There is no pending orders at this time");
-        }
-
-        if (centerList.isEmpty()) {
-            // There are no available centers
-            throw new RuntimeException("There are no available centers at this time");
-        }
+        orderAssignation(orderAssignations::add);
 
-        for (Order order: pendingOrderList) {
-            processPendingOrder(order,centerList,orderAssignations);
-        }
         return new AssignationResponse(orderAssignations);
     }
 
+    /**
+     * Assigns all orders with "PENDING" status to available logistics centers, handing every
+     * assignment result to the given consumer as soon as its chunk is committed.
+     *
+     * Pending orders are claimed in chunks of {@code inditex.assignation.chunk-size} orders using keyset
+     * pagination (id greater than the last processed id), so they are still processed in id ascending
+     * order but memory usage doesn't depend on the backlog size. Every chunk is assigned in its own
+     * transaction:
+     * 1. The chunk is read with {@code SELECT ... FOR UPDATE SKIP LOCKED}, so the orders claimed by
+     *    concurrent runs, of this application instance or of any other one, are skipped instead of
+     *    waited for. No order is assigned twice, and several instances drain the backlog in parallel.
+     * 2. The capacity of the chosen centers is reserved with conditional updates that never exceed their
+     *    maximum capacity (see {@link #reserveCapacity}).
+     * 3. The orders are written as JDBC batch updates and released from the persistence context,
+     *    and the transaction commits, releasing the locks of the chunk.
+     *
+     * A chunk whose transaction fails on a lock conflict (e.g. a deadlock between two runs reserving the
+     * same centers) is retried up to {@value #CHUNK_ATTEMPTS} times, with the center loads read again.
+     * Runs of the same instance don't overlap with each other nor with the continuous assignation
+     * batches (see {@link OrderAssignationPipeline}). Their duration, outcomes and database vs engine
+     * time are measured by {@link AssignationMetrics}.
+     *
+     * @param assignationConsumer the consumer receiving each order assignment result
+     * @throws RuntimeException if there are no pending orders or no available logistics centers
+     */
+    public void orderAssignation(Consumer<OrderAssignation> assignationConsumer) {
+        orderAssignation("request", assignationConsumer, () -> false);
+    }
 
     /**
-     * Processes a single pending order by finding a suitable logistics center.
+     * Assigns all orders with "PENDING" status to available logistics centers, as
+     * {@link #orderAssignation(Consumer)} does, on behalf of an {@link AssignationJobService} job.
      *
-     * The method performs the following steps:
-     * 1. Filters all centers that support the order's size.
-     * 2. Filters centers whose current load is below their maximum capacity.
-     * 3. Finds the closest center to the order's coordinates.
-     * 4. (if a center is found)Updates the center's current load and the order's status and assigned center.
-     * 5. Records the result in the provided orderAssignations list.
+     * The run stops before claiming its next chunk once it is cancelled: the orders of the chunks
+     * already committed stay assigned, and the others remain PENDING.
      *
-     * If no suitable center is found, an OrderAssignation is still created with a message
-     * explaining why the order could not be assigned.
+     * @param assignationConsumer the consumer receiving each order assignment result
+     * @param cancelled tells whether the job has been cancelled
+     * @throws RuntimeException if there are no pending orders or no available logistics centers
+     */
+    public void orderAssignation(Consumer<OrderAssignation> assignationConsumer, BooleanSupplier cancelled) {
+        orderAssignation("job", assignationConsumer, cancelled);
+    }
+
+    /**
+     * Runs an order assignation, serialized with the other runs of this instance (see {@link #orderAssignation(Consumer)}).
      *
-     * @param order the pending order to be assigned
-     * @param centerList the list of centers to consider for assignment; center load will be updated here
-     * @param orderAssignations the list where the assignment result will be added
+     * @param trigger what started the run, reported to {@link AssignationMetrics}
+     * @param assignationConsumer the consumer receiving each order assignment result
+     * @param cancelled tells whether the run has to stop before its next chunk
      */
-    private void processPendingOrder(Order order, List<Center> centerList, List<OrderAssignation> orderAssignations) {
-        // Map that will store all the centers which support the capacity + its distance to current order
-        Map<Center, Double> centerDistances = new HashMap<>();
+    private void orderAssignation(String trigger, Consumer<OrderAssignation> assignationConsumer, BooleanSupplier cancelled) {
+        assignationLock.lock();
+        long start = System.nanoTime();
+        int processedOrders = 0;
+        boolean success = false;
+        try {
+            processedOrders = assignPendingOrders(assignationConsumer, cancelled);
+            success = true;
+        } finally {
+            assignationMetrics.recordRun(trigger, System.nanoTime() - start, processedOrders, success);
+            assignationSimulator.invalidate();
+            assignationLock.unlock();
+        }
+    }
 
-        // 1) Narrow down the centerList to support the order size
-        List<Center> supportingCenters = centerList.stream()
-                .filter(c -> c.getCapacity() != null && c.getCapacity().contains(order.getSize()))
-                .toList();
+    /**
+     * Claims and assigns the pending orders chunk by chunk (see {@link #orderAssignation(Consumer)}).
+     *
+     * @param assignationConsumer the consumer receiving each order assignment result
+     * @param cancelled tells whether the run has to stop before its next chunk
+     * @return the number of processed orders
+     */
+    private int assignPendingOrders(Consumer<OrderAssignation> assignationConsumer, BooleanSupplier cancelled) {
+        // Prepare the nearest-center lookups of this run, with the centers of the registry (read before the chunk
+        // transactions start, so it can refresh itself): a load changed by another instance since is caught by
+        // the conditional capacity reservation
+        AssignationSession session = openSession(centerRegistry.findByStatus("AVAILABLE"));
+
+        Long lastId = 0L;
+        int processedOrders = 0;
+        while (!cancelled.getAsBoolean()) {
+            List<OrderAssignation> chunkAssignations = null;
+            for (int attempt = 1; chunkAssignations == null; attempt++) {
+                Long afterId = lastId;
+                AssignationSession chunkSession = session;
+                try {
+                    chunkAssignations = transactionTemplate.execute(status -> assignNextChunk(afterId, chunkSession));
+                } catch (PessimisticLockingFailureException e) {
+                    if (attempt == CHUNK_ATTEMPTS) throw e;
+
+                    // The session has reserved the capacity of the rolled back chunk: start over from the committed
+                    // loads, which the registry holds once the previous chunks are committed
+                    session = openSession(centerRegistry.findByStatus("AVAILABLE"));
+                }
+            }
+            if (chunkAssignations.isEmpty()) return processedOrders;
 
-        if(supportingCenters.isEmpty()) {
-            // No available centers support the order type.
-            // Fill the order in the assignations list
-            OrderAssignation orderAssignation = new OrderAssignation(
-                    null,
-                    order.getId(),
-                    null,
-                    order.getStatus(),
-                    "No available centers support the order type."
-            );
-            orderAssignations.add(orderAssignation);
-            return;
+            for (OrderAssignation orderAssignation : chunkAssignations) {
+                assignationMetrics.orderProcessed(orderAssignation);
+                assignationConsumer.accept(orderAssignation);
+            }
+            processedOrders += chunkAssignations.size();
+            lastId = chunkAssignations.getLast().getOrderId();
         }
+        return processedOrders;
+    }
 
-        // 2) Narrow down the centerList to admit an order (currentLoad < MaxCapacity)
-        List<Center> availableCenterList = supportingCenters.stream()
-                .filter(c -> c.getCurrentLoad() < c.getMaxCapacity())
-                .toList();
-        if(availableCenterList.isEmpty()) {
-            // All centers are at maximum capacity.
-            // Fill the order in the assignations list
-            OrderAssignation orderAssignation = new OrderAssignation(
-                    null,
-                    order.getId(),
-                    null,
-                    order.getStatus(),
-                    "All centers are at maximum capacity."
-            );
-            orderAssignations.add(orderAssignation);
-            return;
+    /**
+     * Assigns the given orders, those which are still pending, to the available logistics centers
+     * with their current loads. Used by the continuous assignation of the created orders.
+     *
+     * Unlike the full order assignation, nothing is thrown when there are no pending orders or no
+     * available centers: the orders that can't be assigned simply remain PENDING. The orders being
+     * assigned by a concurrent order assignation run are skipped.
+     *
+     * The batch is serialized with the other runs of this instance, but waits at most {@code lockTimeout}
+     * for them, and without holding a database connection: its transaction only begins once the run lock
+     * is taken, and commits before it is released.
+     *
+     * @param orderIds the ids of the orders to assign
+     * @param assignationConsumer the consumer receiving each order assignment result
+     * @param lockTimeout the maximum time waiting for the run in progress, if any
+     * @return {@code true} once the orders are assigned, {@code false} if another run was still in progress
+     *    (nothing has been done: the orders can be submitted again)
+     * @throws InterruptedException if interrupted while waiting for the run in progress
+     */
+    public boolean orderAssignation(Collection<Long> orderIds, Consumer<OrderAssignation> assignationConsumer,
+                                    Duration lockTimeout) throws InterruptedException {
+        if (!assignationLock.tryLock(lockTimeout.toNanos(), TimeUnit.NANOSECONDS)) return false;
+
+        long start = System.nanoTime();
+        List<OrderAssignation> orderAssignations = new ArrayList<>();
+        boolean success = false;
+        try {
+            // Read outside the transaction, so the registry can refresh itself
+            List<Center> availableCenters = centerRegistry.findByStatus("AVAILABLE");
+
+            transactionTemplate.executeWithoutResult(status -> {
+                // Orders may have been assigned by an order assignation run meanwhile
+                List<Order> pendingOrders = assignationMetrics.db(
+                        () -> orderRepository.findByIdInAndStatusOrderByIdAsc(orderIds, INITIAL_ORDER_STATUS));
+                AssignationSession session = pendingOrders.isEmpty() ? null : openSession(availableCenters);
+
+                if (session != null) {
+                    assignChunk(pendingOrders, session, assignationConsumer.andThen(orderAssignations::add));
+                }
+            });
+
+            // Counted once the assignations are committed, as those of the regular runs
+            if (!orderAssignations.isEmpty()) {
+                assignationSimulator.invalidate();
+                orderAssignations.forEach(assignationMetrics::orderProcessed);
+            }
+            success = true;
+        } finally {
+            assignationMetrics.recordRun("continuous", System.nanoTime() - start, orderAssignations.size(), success);
+            assignationLock.unlock();
         }
+        return true;
+    }
+
+    /**
+     * Claims and assigns the next chunk of pending orders, within the current transaction.
+     *
+     * @param lastId the id of the last processed order (0 to claim the first chunk)
+     * @param session the session of the current assignation run, or {@code null} if there are no available centers
+     * @return the assignment results of the chunk, in order id ascending order; empty once there are no pending orders
+     * left, or no available centers left after the first chunk
+     * @throws RuntimeException if the first chunk has no pending orders or no available logistics centers
+     */
+    private List<OrderAssignation> assignNextChunk(Long lastId, AssignationSession session) {
+        List<Order> pendingOrderChunk = findPendingOrdersAfter(lastId);
 
-        // 3) Calculate distance for each suitable center
-        for (Center center: availableCenterList) {
-            String capacity = center.getCapacity();
-
-            // Check this capacity contains order's size
-            if(capacity.contains(order.getSize())) {
-                // This center supports the order's size
-                // Calculate distance
-                double distance = calculateDistance(
-                        order.getCoordinates().getLatitude(),
-                        order.getCoordinates().getLatitude(),
-                        center.getCoordinates().getLatitude(),
-                        center.getCoordinates().getLongitude()
-                );
-
-                // Store this center and its distance in the Map
-                centerDistances.put(center,distance);
+        if (pendingOrderChunk.isEmpty()) {
+            if (lastId == 0L) {
+                // There is no pending orders
+                throw new RuntimeException("There is no pending orders at this time");
             }
+            return List.of();
         }
 
-        // Obtain the center with the shortest distance to the order
-        Optional<Map.Entry<Center, Double>> closestEntry = centerDistances.entrySet()
-                .stream()
-                .min(Map.Entry.comparingByValue());
+        if (session == null) {
+            if (lastId == 0L) {
+                // There are no available centers
+                throw new RuntimeException("There are no available centers at this time");
+            }
+            // No center is available anymore, as read again after a lock conflict: the run stops cleanly, the
+            // orders of the committed chunks staying assigned and the others PENDING
+            return List.of();
+        }
 
-        if (closestEntry.isPresent()) {
-            Center closestCenter = closestEntry.get().getKey();
-            double minDistance = closestEntry.get().getValue();
+        List<OrderAssignation> chunkAssignations = new ArrayList<>(pendingOrderChunk.size());
+        assignChunk(pendingOrderChunk, session, chunkAssignations::add);
 
-            // Update center load & order status and assignedCenter
-            closestCenter.setCurrentLoad(closestCenter.getCurrentLoad()+1);
-            centerRepository.save(closestCenter);
+        // Write the chunk changes as JDBC batch updates (see hibernate.jdbc.batch_size
+        // in application.properties) and release its orders from the persistence context
+        assignationMetrics.db(() -> {
+            entityManager.flush();
+            entityManager.clear();
+        });
+        return chunkAssignations;
+    }
 
-            order.setStatus("ASSIGNED");
-            order.setAssignedCenter(closestCenter.getName());
-            orderRepository.save(order);
+    /**
+     * Opens a session of the configured AssignationEngine over the given centers.
+     *
+     * @param centerList the available centers
+     * @return the session, or {@code null} if there are no available centers
+     */
+    private AssignationSession openSession(List<Center> centerList) {
+        if (centerList.isEmpty()) return null;
 
-            // Update the currentLoad also in the original centerList for future order processing
-            centerList.stream()
-                    .filter(c -> c.getId().equals(closestCenter.getId()))
-                    .findFirst()
-                    .ifPresent(c -> c.setCurrentLoad(closestCenter.getCurrentLoad()));
+        // Centers are kept detached during the run, so they're never written along with the orders
+        centerList.forEach(entityManager::detach);
+        return getAssignationEngine().open(centerList);
+    }
 
-            // Assign order to this center
-            OrderAssignation orderAssignation = new OrderAssignation(
-                    minDistance,
-                    order.getId(),
-                    order.getAssignedCenter(),
-                    order.getStatus(),
-                    "Order assigned"
-            );
-            orderAssignations.add(orderAssignation);
+    /**
+     * Assigns a chunk of pending orders with the given session, and reserves the capacity of the chosen centers.
+     *
+     * @param pendingOrders the pending orders, in id ascending order
+     * @param session the session of the current assignation run
+     * @param assignationConsumer the consumer receiving each order assignment result
+     */
+    private void assignChunk(List<Order> pendingOrders, AssignationSession session,
+                             Consumer<OrderAssignation> assignationConsumer) {
+        long engineStart = System.nanoTime();
+        Center[] closestCenters = session.assignAll(pendingOrders);
+        long engineNanos = System.nanoTime() - engineStart;
+
+        // Reassigning the orders the chosen centers couldn't take is engine time too
+        engineNanos += reserveCapacity(pendingOrders, closestCenters, session);
+
+        // The engine decides the whole chunk at once: each order is charged an equal share of its time
+        long engineShare = engineNanos / pendingOrders.size();
+        long computeNanos = engineNanos;
+        Set<Long> touchedCenterIds = new HashSet<>();
+        for (int i = 0; i < closestCenters.length; i++) {
+            long decisionStart = System.nanoTime();
+            Center assignedCenter = processPendingOrder(
+                    pendingOrders.get(i), closestCenters[i], session, assignationConsumer);
+            long decisionNanos = System.nanoTime() - decisionStart;
+            assignationMetrics.recordDecision(engineShare + decisionNanos);
+            computeNanos += decisionNanos;
+            if (assignedCenter != null) {
+                touchedCenterIds.add(assignedCenter.getId());
+            }
         }
+        assignationMetrics.recordCompute(computeNanos);
+        assignationMetrics.db(() -> registerTouchedCenters(touchedCenterIds));
     }
 
     /**
-     * Calculates the great-circle distance between two geographic points using the Haversine formula.
-     * Used to calculate the distance between order-center
-     *
-     * @param startLat the latitude of the starting point in decimal degrees
-     * @param startLong the longitude of the starting point in decimal degrees
-     * @param endLat the latitude of the ending point in decimal degrees
-     * @param endLong the longitude of the ending point in decimal degrees
-     * @return the distance between the two points in kilometers
+     * Reserves in the database the center capacity chosen by the session for a chunk of orders.
+     *
+     * The method performs the following steps:
+     * 1. Counts the orders of every chosen center, and increments its load with a single conditional
+     *    update, in center id ascending order so concurrent runs lock the center rows in the same order.
+     * 2. (if a center can't take all of them, because another assignation has taken part of its capacity
+     *    or it is no longer AVAILABLE) Locks and reads the center, reserves the capacity it has left for
+     *    its first orders, and refreshes the session with its actual load.
+     * 3. Assigns again, in id ascending order, the orders the center couldn't take. They may choose
+     *    other centers, whose capacity is reserved by repeating these steps.
+     *
+     * Only the database calls are added to the db phase of {@link AssignationMetrics}: the time the session
+     * takes to reassign the orders is returned, so it is added to the compute phase along with the engine time
+     * of the chunk.
+     *
+     * @param orders the orders of the chunk, in id ascending order
+     * @param closestCenters the center chosen for each order, updated with the new choice of the reassigned orders
+     * @param session the session of the current assignation run
+     * @return the time spent by the session refreshing the centers and reassigning the orders, in nanoseconds
      */
-    private double calculateDistance(double startLat, double startLong, double endLat, double endLong) {
-        final int EARTH_RADIUS = 6371; // Radius of the Earth in kilometers
+    private long reserveCapacity(List<Order> orders, Center[] closestCenters, AssignationSession session) {
+        long engineNanos = 0;
+        List<Integer> unreserved = new ArrayList<>(closestCenters.length);
+        for (int i = 0; i < closestCenters.length; i++) {
+            if (closestCenters[i] != null) unreserved.add(i);
+        }
+
+        while (!unreserved.isEmpty()) {
+            // 1) Positions of the orders of every chosen center, by center id
+            SortedMap<Long, List<Integer>> ordersByCenter = new TreeMap<>();
+            for (int i : unreserved) {
+                ordersByCenter.computeIfAbsent(closestCenters[i].getId(), id -> new ArrayList<>()).add(i);
+            }
+
+            List<Integer> rejected = new ArrayList<>();
+            for (Map.Entry<Long, List<Integer>> entry : ordersByCenter.entrySet()) {
+                Long centerId = entry.getKey();
+                List<Integer> positions = entry.getValue();
+                if (assignationMetrics.db(() -> centerRepository.reserveCapacity(centerId, positions.size())) == 1) continue;
+
+                // 2) Read the committed state of the center, locked until the run completes
+                Center current = assignationMetrics.db(() -> centerRepository.findByIdForUpdate(centerId)).orElse(null);
+                int accepted = 0;
+                if (current == null) {
+                    // Deleted meanwhile: refreshed as a center without status, which can't take any order
+                    current = new Center();
+                    current.setId(centerId);
+                } else {
+                    entityManager.detach(current);
+                    if ("AVAILABLE".equals(current.getStatus())) {
+                        accepted = Math.clamp(current.getMaxCapacity() - current.getCurrentLoad(), 0, positions.size());
+                    }
+                    if (accepted > 0) {
+                        int reserved = accepted;
+                        assignationMetrics.db(() -> centerRepository.reserveCapacity(centerId, reserved));
+                        current.setCurrentLoad(current.getCurrentLoad() + accepted);
+                    }
+                }
+                long refreshStart = System.nanoTime();
+                session.refresh(current);
+                engineNanos += System.nanoTime() - refreshStart;
+                rejected.addAll(positions.subList(accepted, positions.size()));
+            }
+
+            // 3) Choose another center for the rejected orders
+            Collections.sort(rejected);
+            unreserved = new ArrayList<>(rejected.size());
+            long assignStart = System.nanoTime();
+            for (int i : rejected) {
+                closestCenters[i] = session.assign(orders.get(i));
+                if (closestCenters[i] != null) unreserved.add(i);
+            }
+            engineNanos += System.nanoTime() - assignStart;
+        }
+        return engineNanos;
+    }
 
-        double dLat = Math.toRadians((endLat - startLat));
-        double dLong = Math.toRadians((endLong - startLong));
+    /**
+     * Hands the centers modified during an assignation run to the {@link CenterRegistry}, with their
+     * loads as written in the database.
+     *
+     * @param touchedCenterIds the ids of the centers whose load has changed
+     */
+    private void registerTouchedCenters(Set<Long> touchedCenterIds) {
+        if (touchedCenterIds.isEmpty()) return;
 
-        startLat = Math.toRadians(startLat);
-        endLat = Math.toRadians(endLat);
+        centerRepository.findAllById(touchedCenterIds).forEach(centerRegistry::put);
+    }
 
-        double a = haversine(dLat) + Math.cos(startLat) * Math.cos(endLat) * haversine(dLong);
-        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+    /**
+     * Claims the next chunk of pending orders, in id ascending order, skipping the orders claimed by other transactions.
+     *
+     * @param lastId the id of the last processed order (0 to read the first chunk)
+     * @return up to {@code inditex.assignation.chunk-size} pending orders with an id greater than lastId
+     */
+    private List<Order> findPendingOrdersAfter(Long lastId) {
+        return assignationMetrics.db(
+                () -> orderRepository.findByStatusAndIdGreaterThanOrderByIdAsc("PENDING", lastId, Limit.of(chunkSize)));
+    }
 
-        return EARTH_RADIUS * c;
+    /**
+     * Returns the AssignationEngine selected with the {@code inditex.assignation.engine} property.
+     *
+     * @return the engine used by the order assignation
+     * @throws IllegalStateException if no engine has the configured name
+     */
+    private AssignationEngine getAssignationEngine() {
+        return assignationEngines.stream()
+                .filter(engine -> engine.name().equals(assignationEngineName))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("Unknown assignation engine: " + assignationEngineName));
     }
 
     /**
-     * Calculates the haversine of an angle.
+     * Processes a single pending order once the AssignationSession has looked for its closest center.
+     *
+     * The method performs the following steps:
+     * 1. (if no center was found) Checks whether any available center supports the order's size,
+     *    to explain why the order could not be assigned.
+     * 2. Calculates the distance to the chosen center.
+     * 3. Updates, in memory, the order's status and assigned center. The center load has already been
+     *    reserved in the database (see {@link #reserveCapacity}).
+     * 4. Hands the result to the provided assignationConsumer.
      *
-     * This is a helper method used in the Haversine formula for computing distances between two points on a sphere.
+     * If no suitable center is found, an OrderAssignation is still created with a message
+     * explaining why the order could not be assigned.
      *
-     * @param val the angle in radians
-     * @return the haversine of the given angle
+     * @param order the pending order to be assigned
+     * @param closestCenter the closest center supporting the order's size whose capacity has been reserved
+     *                      for the order, or {@code null} if there is none
+     * @param session the session of the current assignation run
+     * @param assignationConsumer the consumer receiving the assignment result
+     * @return the center the order has been assigned to, or {@code null} if it remains pending
      */
-    private double haversine(double val) {
-        return Math.pow(Math.sin(val / 2), 2);
+    private Center processPendingOrder(Order order, Center closestCenter, AssignationSession session,
+                                       Consumer<OrderAssignation> assignationConsumer) {
+        // 1) Verify a center has been found
+        if (closestCenter == null) {
+            // Either no available centers support the order type or all of them are at maximum capacity.
+            // Fill the order in the assignations list
+            OrderAssignation orderAssignation = new OrderAssignation(
+                    null,
+                    order.getId(),
+                    null,
+                    order.getStatus(),
+                    session.supports(order.getSizeMask()) ? CENTERS_FULL_MESSAGE : NO_CENTER_SUPPORTS_MESSAGE
+            );
+            assignationConsumer.accept(orderAssignation);
+            return null;
+        }
+
+        // 2) Calculate the exact distance to the chosen center
+        double minDistance = GeoDistance.calculateDistance(
+                order.getCoordinates().getLatitude(),
+                order.getCoordinates().getLongitude(),
+                closestCenter.getCoordinates().getLatitude(),
+                closestCenter.getCoordinates().getLongitude()
+        );
+
+        // 3) Update order status and assignedCenter
+        order.setStatus("ASSIGNED");
+        order.setAssignedCenter(closestCenter.getName());
+
+        // Assign order to this center
+        OrderAssignation orderAssignation = new OrderAssignation(
+                minDistance,
+                order.getId(),
+                order.getAssignedCenter(),
+                order.getStatus(),
+                "Order assigned"
+        );
+        assignationConsumer.accept(orderAssignation);
+        return closestCenter;
     }
 
+    /**
+     * Creates a new PENDING order from a validated orderRequest.
+     *
+     * @param orderRequest the payload containing order details
+     * @return the new order, not saved yet
+     */
+    Order toNewOrder(OrderRequest orderRequest) {
+        Order newOrder = new Order();
+        newOrder.setCustomerId(orderRequest.getCustomerId());
+        newOrder.setSize(orderRequest.getSize());
+        newOrder.setStatus(INITIAL_ORDER_STATUS);
+        newOrder.setCoordinates(orderRequest.getCoordinates());
+        return newOrder;
+    }
 
     /**
      * Checks if the given order size is valid.
@@ -283,6 +748,31 @@ public class OrderManagementService {
         return size != null && VALID_SIZES.contains(size);
     }
 
+    /**
+     * Checks if the given order status is valid.
+     *
+     * @param status the status to check
+     * @return {@code true} if the status is non-null and contained in {@link #VALID_STATUS}, {@code false} otherwise
+     */
+    boolean isValidStatus(String status) {
+        return status != null && VALID_STATUS.contains(status);
+    }
+
+    /**
+     * Resolves the number of orders of a page of the order list.
+     *
+     * @param limit the requested limit, or null for the default one
+     * @return the number of orders of the page
+     * @throws ResponseStatusException if the limit is not between 1 and {@code inditex.pagination.max-limit} (400 Bad Request)
+     */
+    int pageLimit(Integer limit) {
+        if (limit == null) return defaultPageLimit;
+        if (limit < 1 || limit > maxPageLimit) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid limit value");
+        }
+        return limit;
+    }
+
     /**
      * Validates the given OrderRequest.
      *
@@ -294,7 +784,7 @@ public class OrderManagementService {
      * Throws a 400 Bad Request ResponseStatusException if any check fails.
      * @param orderRequest the order request to validate
      */
-    private void validateOrderRequest(OrderRequest orderRequest) {
+    void validateOrderRequest(OrderRequest orderRequest) {
         // Verify customerId is not empty
         if (orderRequest.getCustomerId() == null) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST,"Empty customerId value");
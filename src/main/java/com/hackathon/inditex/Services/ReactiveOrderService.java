@@ -0,0 +1,208 @@
+package com.hackathon.inditex.Services;
+
+import com.hackathon.inditex.DTO.CursorPage;
+import com.hackathon.inditex.DTO.OrderRequest;
+import com.hackathon.inditex.DTO.OrderResponse;
+import com.hackathon.inditex.DTO.OrderSummary;
+import com.hackathon.inditex.Entities.Order;
+import com.hackathon.inditex.Repositories.ReactiveOrderRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Service creating and reading orders without blocking, for ingestion bursts.
+ *
+ * Orders are validated with the same rules as {@link OrderManagementService}, then queued to be
+ * inserted: concurrent creations are coalesced into batches of up to {@code inditex.reactive.batch-size}
+ * orders (or whatever has been queued after {@code inditex.reactive.batch-delay}), each inserted as a single
+ * batched statement and transaction by {@link ReactiveOrderRepository}, at most
+ * {@code inditex.reactive.insert-concurrency} batches at a time. Every creation completes once its batch is
+ * committed, with its generated id.
+ *
+ * Backpressure: the batches are only formed as fast as they are inserted, and the orders waiting for a batch
+ * are held in a queue of {@code inditex.reactive.queue-capacity} orders. Once it is full, creations are
+ * rejected with 503 Service Unavailable until the database catches up, instead of piling up in memory.
+ */
+@Slf4j
+@Service
+public class ReactiveOrderService {
+
+    // Autowiring the OrderManagementService bean from the ApplicationContext
+    @Autowired
+    private OrderManagementService orderManagementService;
+
+    // Autowiring the ReactiveOrderRepository bean from the ApplicationContext
+    @Autowired
+    private ReactiveOrderRepository reactiveOrderRepository;
+
+    // Autowiring the OrderAssignationPipeline bean from the ApplicationContext
+    @Autowired
+    private OrderAssignationPipeline orderAssignationPipeline;
+
+    // Autowiring the AssignationSimulator bean from the ApplicationContext
+    @Autowired
+    private AssignationSimulator assignationSimulator;
+
+    // Maximum number of orders inserted by a batch
+    @Value("${inditex.reactive.batch-size:200}")
+    private int batchSize;
+
+    // Maximum time an order waits for its batch to fill up
+    @Value("${inditex.reactive.batch-delay:5ms}")
+    private Duration batchDelay;
+
+    // Maximum number of orders waiting for a batch
+    @Value("${inditex.reactive.queue-capacity:10000}")
+    private int queueCapacity;
+
+    // Maximum number of batches inserted at the same time
+    @Value("${inditex.reactive.insert-concurrency:4}")
+    private int insertConcurrency;
+
+    /** An order waiting to be inserted, and the sink of its generated id. */
+    private record PendingOrder(Order order, Sinks.One<Long> id) {
+    }
+
+    // Orders waiting to be inserted, emitted by one creation at a time
+    private Sinks.Many<PendingOrder> pendingOrders;
+    private final ReentrantLock emitLock = new ReentrantLock();
+
+    // Subscription inserting the batches of pending orders
+    private Disposable inserts;
+
+    /** Starts inserting the created orders in batches. */
+    @PostConstruct
+    public void start() {
+        pendingOrders = Sinks.many().unicast().onBackpressureBuffer(new ArrayBlockingQueue<>(queueCapacity));
+        inserts = pendingOrders.asFlux()
+                .bufferTimeout(batchSize, batchDelay, true)
+                .flatMap(this::insertBatch, insertConcurrency)
+                .subscribe();
+    }
+
+    /** Stops inserting the created orders. Orders still waiting for a batch fail. */
+    @PreDestroy
+    public void stop() {
+        inserts.dispose();
+    }
+
+    /**
+     * Creates a new order based on the provided orderRequest, as {@link OrderManagementService#createNewOrder}
+     * does, inserting it along with the orders created at the same time.
+     *
+     * @param orderRequest the payload containing order details
+     * @return a Mono of the {@link OrderResponse} with the created order’s details, once it is committed
+     * @throws ResponseStatusException (as the Mono error) if the request is invalid: missing customerId, invalid size,
+     *    or missing coordinates (400 Bad Request), or if too many orders are waiting to be inserted (503 Service Unavailable)
+     */
+    public Mono<OrderResponse> createNewOrder(OrderRequest orderRequest) {
+        final String SUCCESS_MESSAGE = "Order created successfully in PENDING status.";
+
+        return Mono.defer(() -> {
+            // validates if request is invalid: missing customerId, invalid size, or missing coordinates
+            orderManagementService.validateOrderRequest(orderRequest);
+            Order newOrder = orderManagementService.toNewOrder(orderRequest);
+
+            // Queue the order for the next batch, unless the queue is full
+            Sinks.One<Long> id = Sinks.one();
+            Sinks.EmitResult result;
+            emitLock.lock();
+            try {
+                result = pendingOrders.tryEmitNext(new PendingOrder(newOrder, id));
+            } finally {
+                emitLock.unlock();
+            }
+            if (result.isFailure()) {
+                return Mono.error(new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                        "Too many orders being created, retry later"));
+            }
+
+            return id.asMono().map(orderId -> {
+                newOrder.setId(orderId);
+                assignationSimulator.invalidate();
+                orderAssignationPipeline.submit(orderId);
+                return new OrderResponse(
+                        newOrder.getId(),
+                        newOrder.getCustomerId(),
+                        newOrder.getSize(),
+                        null,
+                        newOrder.getCoordinates(),
+                        newOrder.getStatus(),
+                        SUCCESS_MESSAGE
+                );
+            });
+        });
+    }
+
+    /**
+     * Retrieves a page of the registered orders, in id ascending order, as {@link OrderManagementService#readOrders}
+     * does. An empty page is returned when there are no orders.
+     *
+     * @param status the status to filter orders by, or null
+     * @param assignedCenter the name of the assigned center to filter orders by, or null
+     * @param customerId the customer to filter orders by, or null
+     * @param after the id of the last order of the previous page, or null for the first page
+     * @param limit the maximum number of orders to return, or null for {@code inditex.pagination.default-limit}
+     * @return a Mono of the orders of the page, with the cursor of the next page if there are more orders
+     * @throws ResponseStatusException (as the Mono error) if the status or the limit is invalid (400 Bad Request)
+     */
+    public Mono<CursorPage<OrderSummary>> readOrders(String status, String assignedCenter, Long customerId, Long after, Integer limit) {
+        return Mono.defer(() -> {
+            int pageLimit = orderManagementService.pageLimit(limit);
+
+            // Verify the status value is valid
+            if (status != null && !orderManagementService.isValidStatus(status)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid status value");
+            }
+
+            // Read one more order than requested, to know whether there is a next page
+            return reactiveOrderRepository.findPage(status, assignedCenter, customerId, after == null ? 0L : after, pageLimit + 1)
+                    .collectList()
+                    .map(orderList -> {
+                        if (orderList.size() <= pageLimit) {
+                            return new CursorPage<>(orderList, null);
+                        }
+                        List<OrderSummary> items = orderList.subList(0, pageLimit);
+                        return new CursorPage<>(items, items.get(items.size() - 1).getId());
+                    });
+        });
+    }
+
+    /**
+     * Inserts a batch of pending orders, and completes their creations with their ids, or with the error
+     * which has rolled the batch back.
+     *
+     * @param batch the pending orders, in creation order
+     * @return a Mono completing once the batch is committed or rolled back
+     */
+    private Mono<Void> insertBatch(List<PendingOrder> batch) {
+        List<Order> orders = batch.stream().map(PendingOrder::order).toList();
+        return reactiveOrderRepository.insertAll(orders)
+                .collectList()
+                .doOnNext(ids -> {
+                    for (int i = 0; i < batch.size(); i++) {
+                        batch.get(i).id().tryEmitValue(ids.get(i));
+                    }
+                })
+                .onErrorResume(e -> {
+                    log.warn("Insert of a batch of {} orders failed", batch.size(), e);
+                    batch.forEach(pendingOrder -> pendingOrder.id().tryEmitError(e));
+                    return Mono.empty();
+                })
+                .then();
+    }
+}
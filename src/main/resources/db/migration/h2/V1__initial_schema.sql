@@ -0,0 +1,26 @@
+-- Schema previously generated by Hibernate (ddl-auto=update).
+-- Databases created that way are baselined at this version (spring.flyway.baseline-on-migrate).
+
+CREATE TABLE centers (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    name VARCHAR(255),
+    capacity VARCHAR(255),
+    status VARCHAR(255),
+    current_load INTEGER,
+    max_capacity INTEGER,
+    latitude DOUBLE PRECISION,
+    longitude DOUBLE PRECISION,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_centers_coordinates UNIQUE (latitude, longitude)
+);
+
+CREATE TABLE orders (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    customer_id BIGINT,
+    size VARCHAR(255),
+    status VARCHAR(255),
+    assigned_center VARCHAR(255),
+    latitude DOUBLE PRECISION,
+    longitude DOUBLE PRECISION,
+    PRIMARY KEY (id)
+);
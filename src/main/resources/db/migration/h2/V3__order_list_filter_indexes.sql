@@ -0,0 +1,4 @@
+-- Cursor pagination of GET /api/orders filtered by customer or by center:
+-- WHERE customer_id = ? AND id > ? ORDER BY id, and WHERE assigned_center = ? AND id > ? ORDER BY id
+CREATE INDEX idx_orders_customer_id_id ON orders (customer_id, id);
+CREATE INDEX idx_orders_assigned_center_id ON orders (assigned_center, id);
@@ -0,0 +1,15 @@
+-- Narrow the enumerated string columns to the length of their longest value:
+-- status "AVAILABLE"/"OCCUPIED" and "PENDING"/"ASSIGNED", capacity up to "BMS", size "B", "M" or "S"
+ALTER TABLE centers
+    MODIFY COLUMN capacity VARCHAR(3),
+    MODIFY COLUMN status VARCHAR(9);
+
+ALTER TABLE orders
+    MODIFY COLUMN size VARCHAR(1),
+    MODIFY COLUMN status VARCHAR(8);
+
+-- Keyset pagination over the pending orders: WHERE status = ? AND id > ? ORDER BY id
+CREATE INDEX idx_orders_status_id ON orders (status, id);
+
+-- Available centers of the order assignation: WHERE status = ?
+CREATE INDEX idx_centers_status ON centers (status);
@@ -0,0 +1,12 @@
+-- Narrow the enumerated string columns to the length of their longest value:
+-- status "AVAILABLE"/"OCCUPIED" and "PENDING"/"ASSIGNED", capacity up to "BMS", size "B", "M" or "S"
+ALTER TABLE centers ALTER COLUMN capacity SET DATA TYPE VARCHAR(3);
+ALTER TABLE centers ALTER COLUMN status SET DATA TYPE VARCHAR(9);
+ALTER TABLE orders ALTER COLUMN size SET DATA TYPE VARCHAR(1);
+ALTER TABLE orders ALTER COLUMN status SET DATA TYPE VARCHAR(8);
+
+-- Keyset pagination over the pending orders: WHERE status = ? AND id > ? ORDER BY id
+CREATE INDEX idx_orders_status_id ON orders (status, id);
+
+-- Available centers of the order assignation: WHERE status = ?
+CREATE INDEX idx_centers_status ON centers (status);
@@ -0,0 +1,113 @@
+package com.hackathon.inditex;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.hackathon.inditex.DTO.CenterRequest;
+import com.hackathon.inditex.Entities.Coordinates;
+import com.hackathon.inditex.Services.CenterRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+
+/**
+ * Integration tests of the center endpoints with the in-memory center registry turned on.
+ * <p>
+ * The centers written directly in the database stand for those written through another application
+ * instance, which the registry only sees once it is read again, after its refresh interval.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+		"inditex.center-cache.enabled=true",
+		"inditex.center-cache.refresh-interval=" + CenterRegistryTests.REFRESH_INTERVAL_MILLIS + "ms"
+})
+@ActiveProfiles("test")
+@Sql(scripts = "/sql/reset-db.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+class CenterRegistryTests {
+
+	static final long REFRESH_INTERVAL_MILLIS = 500;
+
+	/** Injects the random port number the server is running on during tests. */
+	@LocalServerPort
+	private int port;
+
+	@Autowired
+	private TestRestTemplate restTemplate;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private CenterRegistry centerRegistry;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	/** Reloads the registry, warmed before the tables were reset. */
+	@BeforeEach
+	void reloadRegistry() {
+		centerRegistry.warmUp();
+	}
+
+	/**
+	 * Test the centers written by another instance with the registry turned on.
+	 * <p>
+	 * The test performs the following steps:
+	 * <ol>
+	 *     <li>Create a center through the API, and verify its coordinates are checked and it is listed from memory.</li>
+	 *     <li>Insert a center directly in the database, and verify creating another one at its coordinates
+	 *     is rejected the same way as without the registry, right away.</li>
+	 *     <li>Verify the inserted center is listed once the refresh interval has elapsed.</li>
+	 * </ol>
+	 */
+	@Test
+	void seesCentersWrittenByAnotherInstance() throws InterruptedException {
+		String url = "http://localhost:" + port + "/api/centers";
+
+		// Create a center through the API, its coordinates checked and listed from memory
+		double misses = registryReads("miss");
+		assertThat(restTemplate.postForEntity(url, centerRequest(0.2, 0.3), String.class).getStatusCode())
+				.isEqualTo(HttpStatus.CREATED);
+		assertThat(registryReads("miss")).isEqualTo(misses);
+		double hits = registryReads("hit");
+		ResponseEntity<JsonNode> centers = restTemplate.getForEntity(url, JsonNode.class);
+		assertThat(centers.getBody().size()).isEqualTo(1);
+		assertThat(registryReads("hit")).isGreaterThan(hits);
+
+		// Insert a center as another instance would: creating another one there is rejected by the database
+		jdbcTemplate.update("INSERT INTO centers (name, capacity, status, current_load, max_capacity, latitude, longitude) "
+				+ "VALUES ('Other Instance Center', 'MS', 'AVAILABLE', 0, 10, 1.5, 2.5)");
+		ResponseEntity<String> duplicate = restTemplate.postForEntity(url, centerRequest(1.5, 2.5), String.class);
+		assertThat(duplicate.getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
+		assertThat(duplicate.getBody()).contains("There is already a logistics center in that position.");
+
+		// Listed once the registry has been read again
+		Thread.sleep(REFRESH_INTERVAL_MILLIS + 100);
+		centers = restTemplate.getForEntity(url, JsonNode.class);
+		assertThat(centers.getBody().size()).isEqualTo(2);
+		assertThat(centers.getBody().get(1).get("name").asText()).isEqualTo("Other Instance Center");
+	}
+
+	private static CenterRequest centerRequest(double latitude, double longitude) {
+		CenterRequest centerRequest = new CenterRequest();
+		centerRequest.setName("Spain Center");
+		centerRequest.setCapacity("MS");
+		centerRequest.setStatus("AVAILABLE");
+		centerRequest.setCurrentLoad(0);
+		centerRequest.setMaxCapacity(10);
+		centerRequest.setCoordinates(new Coordinates(latitude, longitude));
+		return centerRequest;
+	}
+
+	private double registryReads(String result) {
+		return meterRegistry.get("inditex.center.registry.requests").tag("result", result).functionCounter().count();
+	}
+}
@@ -0,0 +1,23 @@
+package com.hackathon.inditex.Engine;
+
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.RepetitionInfo;
+
+import static com.hackathon.inditex.Engine.EngineTestSupport.assertSameChoicesAsExactGreedy;
+
+/**
+ * Property tests of the {@link AssignationKernel}: on random datasets, every order gets one of the
+ * closest centers with free capacity by exact great-circle distance.
+ */
+class AssignationKernelTest {
+
+	@RepeatedTest(20)
+	void choosesLikeExactGreedy(RepetitionInfo repetition) {
+		assertSameChoicesAsExactGreedy(new AssignationKernel(), repetition.getCurrentRepetition(), false);
+	}
+
+	@RepeatedTest(10)
+	void honoursRefreshedCenters(RepetitionInfo repetition) {
+		assertSameChoicesAsExactGreedy(new AssignationKernel(), repetition.getCurrentRepetition(), true);
+	}
+}
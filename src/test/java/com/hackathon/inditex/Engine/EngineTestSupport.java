@@ -0,0 +1,182 @@
+package com.hackathon.inditex.Engine;
+
+import com.hackathon.inditex.Entities.Center;
+import com.hackathon.inditex.Entities.Coordinates;
+import com.hackathon.inditex.Entities.Order;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Random datasets and assertions shared by the assignation engine tests.
+ */
+final class EngineTestSupport {
+
+	// Tolerance for exact distances that only differ by floating point rounding, in kilometers
+	static final double EPSILON = 1e-9;
+
+	private static final String[] CAPACITIES = {"B", "M", "S", "BM", "BS", "MS", "BMS"};
+	private static final String[] SIZES = {"B", "M", "S"};
+
+	private EngineTestSupport() {
+	}
+
+	/**
+	 * Assigns random orders with the given engine, in chunks of 100, and replays them with a brute
+	 * force greedy over the exact Haversine distance: every choice must be one of the closest centers
+	 * with free capacity, or none when no such center exists.
+	 * <p>
+	 * When refreshing, a few centers are refreshed before every chunk as if another run had taken their
+	 * capacity, or some of their orders had been delivered, or they had been set OCCUPIED.
+	 */
+	static void assertSameChoicesAsExactGreedy(AssignationEngine engine, long seed, boolean refreshing) {
+		Random random = new Random(seed);
+		List<Center> centers = randomCenters(random, 50 + random.nextInt(150));
+		List<Order> orders = randomOrders(random, 1000);
+
+		// The orders are assigned in chunks, like the service does
+		AssignationSession session = engine.open(centers);
+		List<Center> assignedCenters = new ArrayList<>(orders.size());
+		Map<Integer, List<Center>> refreshes = new HashMap<>();
+		Map<Long, Integer> sessionLoads = new HashMap<>();
+		for (int start = 0; start < orders.size(); start += 100) {
+			if (refreshing) {
+				List<Center> refreshed = randomRefreshes(random, centers, sessionLoads);
+				refreshed.forEach(session::refresh);
+				refreshes.put(start, refreshed);
+			}
+			Center[] chunk = session.assignAll(orders.subList(start, start + 100));
+			for (Center center : chunk) {
+				if (center != null) sessionLoads.merge(center.getId(), 1, Integer::sum);
+			}
+			assignedCenters.addAll(Arrays.asList(chunk));
+		}
+
+		Map<Long, Integer> loads = new HashMap<>();
+		Map<Long, Integer> maxCapacities = new HashMap<>();
+		for (Center center : centers) {
+			maxCapacities.put(center.getId(), center.getMaxCapacity());
+		}
+		for (int i = 0; i < orders.size(); i++) {
+			for (Center refreshed : refreshes.getOrDefault(i, List.of())) {
+				loads.put(refreshed.getId(), refreshed.getCurrentLoad());
+				maxCapacities.put(refreshed.getId(), "AVAILABLE".equals(refreshed.getStatus()) ? refreshed.getMaxCapacity() : 0);
+			}
+			Order order = orders.get(i);
+			Center chosen = assignedCenters.get(i);
+
+			double bestExact = Double.POSITIVE_INFINITY;
+			for (Center center : centers) {
+				if (!SizeMask.accepts(center.getCapacityMask(), order.getSizeMask())
+						|| loads.getOrDefault(center.getId(), 0) >= maxCapacities.get(center.getId())) continue;
+				bestExact = Math.min(bestExact, distance(order, center));
+			}
+
+			if (bestExact == Double.POSITIVE_INFINITY) {
+				assertThat(chosen).isNull();
+				continue;
+			}
+			assertThat(chosen).isNotNull();
+			assertThat(distance(order, chosen)).isCloseTo(bestExact, within(EPSILON));
+			loads.merge(chosen.getId(), 1, Integer::sum);
+		}
+	}
+
+	/**
+	 * Random new states for a few centers, based on their loads in the session: full, emptier or OCCUPIED.
+	 * The session loads are updated with the new ones.
+	 */
+	private static List<Center> randomRefreshes(Random random, List<Center> centers, Map<Long, Integer> sessionLoads) {
+		List<Center> refreshed = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			Center center = centers.get(random.nextInt(centers.size()));
+			Center current = new Center();
+			current.setId(center.getId());
+			current.setName(center.getName());
+			current.setCapacity(center.getCapacity());
+			current.setCoordinates(center.getCoordinates());
+			current.setStatus(random.nextInt(3) == 0 ? "OCCUPIED" : "AVAILABLE");
+			current.setMaxCapacity(center.getMaxCapacity());
+			int load = sessionLoads.getOrDefault(center.getId(), 0);
+			current.setCurrentLoad(random.nextBoolean() ? center.getMaxCapacity() : random.nextInt(load + 1));
+			sessionLoads.put(center.getId(), current.getCurrentLoad());
+			refreshed.add(current);
+		}
+		return refreshed;
+	}
+
+	static double distance(Order order, Center center) {
+		return GeoDistance.calculateDistance(
+				order.getCoordinates().getLatitude(), order.getCoordinates().getLongitude(),
+				center.getCoordinates().getLatitude(), center.getCoordinates().getLongitude());
+	}
+
+	static Center center(long id, double latitude, double longitude) {
+		Center center = new Center();
+		center.setId(id);
+		center.setName("Center " + id);
+		center.setCapacity("BMS");
+		center.setStatus("AVAILABLE");
+		center.setCurrentLoad(0);
+		center.setMaxCapacity(1);
+		center.setCoordinates(new Coordinates(latitude, longitude));
+		return center;
+	}
+
+	static Order order(long id, double latitude, double longitude) {
+		Order order = new Order();
+		order.setId(id);
+		order.setCustomerId(id);
+		order.setSize("M");
+		order.setStatus("PENDING");
+		order.setCoordinates(new Coordinates(latitude, longitude));
+		return order;
+	}
+
+	static List<Center> randomCenters(Random random, int count) {
+		List<Center> centers = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			double[] point = randomPoint(random);
+			Center center = new Center();
+			center.setId((long) i + 1);
+			center.setName("Center " + (i + 1));
+			center.setCapacity(CAPACITIES[random.nextInt(CAPACITIES.length)]);
+			center.setStatus("AVAILABLE");
+			center.setCurrentLoad(0);
+			center.setMaxCapacity(1 + random.nextInt(10));
+			center.setCoordinates(new Coordinates(point[0], point[1]));
+			centers.add(center);
+		}
+		return centers;
+	}
+
+	static List<Order> randomOrders(Random random, int count) {
+		List<Order> orders = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			double[] point = randomPoint(random);
+			Order order = new Order();
+			order.setId((long) i + 1);
+			order.setCustomerId((long) i);
+			order.setSize(SIZES[random.nextInt(SIZES.length)]);
+			order.setStatus("PENDING");
+			order.setCoordinates(new Coordinates(point[0], point[1]));
+			orders.add(order);
+		}
+		return orders;
+	}
+
+	/** Random point, half of the time inside a small area around Europe to get close candidates. */
+	static double[] randomPoint(Random random) {
+		if (random.nextBoolean()) {
+			return new double[]{40 + 2 * random.nextDouble(), -4 + 2 * random.nextDouble()};
+		}
+		return new double[]{-90 + 180 * random.nextDouble(), -180 + 360 * random.nextDouble()};
+	}
+}
@@ -0,0 +1,56 @@
+package com.hackathon.inditex.Engine;
+
+import org.junit.jupiter.api.RepetitionInfo;
+import org.junit.jupiter.api.RepeatedTest;
+
+import java.util.Random;
+
+import static com.hackathon.inditex.Engine.EngineTestSupport.EPSILON;
+import static com.hackathon.inditex.Engine.EngineTestSupport.randomPoint;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Property tests of the distance fast path.
+ * <p>
+ * Every repetition generates a random dataset from its own seed and checks that ranking the
+ * centers by the squared chord between unit vectors, as the assignation engines do, chooses
+ * a center at exactly the same great-circle distance as the Haversine formula would.
+ */
+class GeoDistanceTest {
+
+	@RepeatedTest(50)
+	void chordRanksPointsLikeHaversine(RepetitionInfo repetition) {
+		Random random = new Random(repetition.getCurrentRepetition());
+		double[][] points = randomPoints(random, 200);
+
+		for (int o = 0; o < 100; o++) {
+			double[] order = randomPoint(random);
+			double[] orderVector = GeoDistance.toUnitVector(order[0], order[1]);
+
+			int byChord = -1;
+			double bestChord = Double.POSITIVE_INFINITY;
+			double bestExact = Double.POSITIVE_INFINITY;
+			for (int p = 0; p < points.length; p++) {
+				double[] vector = GeoDistance.toUnitVector(points[p][0], points[p][1]);
+				double chord = GeoDistance.chordSquared(orderVector[0], orderVector[1], orderVector[2], vector[0], vector[1], vector[2]);
+				if (chord < bestChord) {
+					bestChord = chord;
+					byChord = p;
+				}
+				bestExact = Math.min(bestExact, GeoDistance.calculateDistance(order[0], order[1], points[p][0], points[p][1]));
+			}
+
+			double chosen = GeoDistance.calculateDistance(order[0], order[1], points[byChord][0], points[byChord][1]);
+			assertThat(chosen).isCloseTo(bestExact, within(EPSILON));
+		}
+	}
+
+	private static double[][] randomPoints(Random random, int count) {
+		double[][] points = new double[count][];
+		for (int i = 0; i < count; i++) {
+			points[i] = randomPoint(random);
+		}
+		return points;
+	}
+}
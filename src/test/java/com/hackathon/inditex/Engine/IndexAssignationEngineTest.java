@@ -0,0 +1,69 @@
+package com.hackathon.inditex.Engine;
+
+import com.hackathon.inditex.Entities.Center;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.RepetitionInfo;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static com.hackathon.inditex.Engine.EngineTestSupport.assertSameChoicesAsExactGreedy;
+import static com.hackathon.inditex.Engine.EngineTestSupport.center;
+import static com.hackathon.inditex.Engine.EngineTestSupport.order;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Property tests of the {@link IndexAssignationEngine}: on random datasets, every order gets one of the
+ * closest centers with free capacity by exact great-circle distance.
+ */
+class IndexAssignationEngineTest {
+
+	@RepeatedTest(20)
+	void choosesLikeExactGreedy(RepetitionInfo repetition) {
+		assertSameChoicesAsExactGreedy(newEngine(), repetition.getCurrentRepetition(), false);
+	}
+
+	@RepeatedTest(10)
+	void honoursRefreshedCenters(RepetitionInfo repetition) {
+		assertSameChoicesAsExactGreedy(newEngine(), repetition.getCurrentRepetition(), true);
+	}
+
+	/**
+	 * Test a center updated outside a running session, while the session has reserved some of its capacity.
+	 * <p>
+	 * The test performs the following steps:
+	 * <ol>
+	 *     <li>Open a session over two centers on the equator, the first one with room for two orders.</li>
+	 *     <li>Assign an order next to the first center, and rename that center with its committed load.</li>
+	 *     <li>Verify the session still counts the reservation: the next order takes the last unit of the first
+	 *     center, and the one after goes to the second center.</li>
+	 * </ol>
+	 */
+	@Test
+	void keepsReservationsOfTheSessionWhenCentersAreUpdated() {
+		CenterSpatialIndex index = new CenterSpatialIndex();
+		IndexAssignationEngine engine = new IndexAssignationEngine();
+		ReflectionTestUtils.setField(engine, "centerSpatialIndex", index);
+		Center first = center(1, 0, 0);
+		first.setMaxCapacity(2);
+		AssignationSession session = engine.open(List.of(first, center(2, 0, 10)));
+
+		assertThat(session.assign(order(1, 0, 0)).getId()).isEqualTo(1L);
+
+		// Renamed through the API: its committed load doesn't include the reservation of the session yet
+		Center renamed = center(1, 0, 0);
+		renamed.setName("Renamed");
+		renamed.setMaxCapacity(2);
+		index.merge(renamed, 0);
+
+		assertThat(session.assign(order(2, 0, 0)).getId()).isEqualTo(1L);
+		assertThat(session.assign(order(3, 0, 0)).getId()).isEqualTo(2L);
+	}
+
+	private static IndexAssignationEngine newEngine() {
+		IndexAssignationEngine engine = new IndexAssignationEngine();
+		ReflectionTestUtils.setField(engine, "centerSpatialIndex", new CenterSpatialIndex());
+		return engine;
+	}
+}
@@ -0,0 +1,110 @@
+package com.hackathon.inditex.Engine;
+
+import com.hackathon.inditex.Entities.Center;
+import com.hackathon.inditex.Entities.Order;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.RepetitionInfo;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static com.hackathon.inditex.Engine.EngineTestSupport.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests of the {@link OptimalAssignationEngine}: on random datasets, its choices respect the order sizes
+ * and the center capacities, and never travel more in total than the greedy choices.
+ */
+class OptimalAssignationEngineTest {
+
+	@RepeatedTest(20)
+	void respectsSizesAndCapacities(RepetitionInfo repetition) {
+		Random random = new Random(repetition.getCurrentRepetition());
+		List<Center> centers = randomCenters(random, 50 + random.nextInt(150));
+		List<Order> orders = randomOrders(random, 1000);
+
+		OptimalAssignationEngine engine = new OptimalAssignationEngine();
+		// Few candidates and visits, so that the greedy fallback is exercised too
+		ReflectionTestUtils.setField(engine, "candidates", 1 + repetition.getCurrentRepetition() % 4);
+		ReflectionTestUtils.setField(engine, "maxVisits", 10 + repetition.getCurrentRepetition() % 3 * 100);
+		AssignationSession session = engine.open(centers);
+		List<Center> assignedCenters = new ArrayList<>(orders.size());
+		for (int start = 0; start < orders.size(); start += 100) {
+			assignedCenters.addAll(Arrays.asList(session.assignAll(orders.subList(start, start + 100))));
+		}
+
+		// Every choice supports the size of its order, no center goes over its maximum capacity, and
+		// orders are only left unassigned when no center supporting their size has capacity left
+		Map<Long, Integer> loads = new HashMap<>();
+		for (int i = 0; i < orders.size(); i++) {
+			Center chosen = assignedCenters.get(i);
+			if (chosen == null) continue;
+			assertThat(SizeMask.accepts(chosen.getCapacityMask(), orders.get(i).getSizeMask())).isTrue();
+			loads.merge(chosen.getId(), 1, Integer::sum);
+		}
+		for (Center center : centers) {
+			assertThat(loads.getOrDefault(center.getId(), 0)).isLessThanOrEqualTo(center.getMaxCapacity());
+		}
+		for (int i = 0; i < orders.size(); i++) {
+			if (assignedCenters.get(i) != null) continue;
+			for (Center center : centers) {
+				if (SizeMask.accepts(center.getCapacityMask(), orders.get(i).getSizeMask())) {
+					assertThat(loads.getOrDefault(center.getId(), 0)).isEqualTo(center.getMaxCapacity());
+				}
+			}
+		}
+	}
+
+	@RepeatedTest(20)
+	void travelsNoMoreThanGreedy(RepetitionInfo repetition) {
+		Random random = new Random(repetition.getCurrentRepetition());
+		List<Center> centers = randomCenters(random, 20 + random.nextInt(80));
+		// Centers supporting every size, so that any order can take any free unit of capacity
+		centers.forEach(center -> center.setCapacity("BMS"));
+		List<Order> orders = randomOrders(random, 300);
+
+		// Every center is a candidate of every order, so the whole chunk is solved exactly
+		OptimalAssignationEngine engine = new OptimalAssignationEngine();
+		ReflectionTestUtils.setField(engine, "candidates", centers.size());
+		ReflectionTestUtils.setField(engine, "maxVisits", Integer.MAX_VALUE);
+		Center[] optimal = engine.open(centers).assignAll(orders);
+		Center[] greedy = new AssignationKernel().open(centers).assignAll(orders);
+
+		double optimalDistance = 0;
+		double greedyDistance = 0;
+		int optimalAssigned = 0;
+		int greedyAssigned = 0;
+		for (int i = 0; i < orders.size(); i++) {
+			if (optimal[i] != null) {
+				optimalDistance += distance(orders.get(i), optimal[i]);
+				optimalAssigned++;
+			}
+			if (greedy[i] != null) {
+				greedyDistance += distance(orders.get(i), greedy[i]);
+				greedyAssigned++;
+			}
+		}
+		assertThat(optimalAssigned).isEqualTo(greedyAssigned);
+		assertThat(optimalDistance).isLessThanOrEqualTo(greedyDistance + orders.size() * EPSILON);
+	}
+
+	@Test
+	void givesUpNearestCenterWhenCheaperOverall() {
+		// Two centers of capacity 1 on the equator, at longitudes 0 and 10
+		List<Center> centers = List.of(center(1, 0, 0), center(2, 0, 10));
+		// The first order is slightly closer to center 1, the second one much closer
+		List<Order> orders = List.of(order(1, 0, 4), order(2, 0, 0.5));
+
+		Center[] greedy = new AssignationKernel().open(centers).assignAll(orders);
+		assertThat(greedy).extracting(Center::getId).containsExactly(1L, 2L);
+
+		Center[] optimal = new OptimalAssignationEngine().open(centers).assignAll(orders);
+		assertThat(optimal).extracting(Center::getId).containsExactly(2L, 1L);
+	}
+}
@@ -0,0 +1,42 @@
+package com.hackathon.inditex.Engine;
+
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.RepetitionInfo;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static com.hackathon.inditex.Engine.EngineTestSupport.assertSameChoicesAsExactGreedy;
+
+/**
+ * Property tests of the {@link ParallelAssignationEngine}: on random datasets, every order gets one of the
+ * closest centers with free capacity by exact great-circle distance, as with the sequential engines.
+ */
+class ParallelAssignationEngineTest {
+
+	@RepeatedTest(20)
+	void choosesLikeExactGreedy(RepetitionInfo repetition) {
+		// Few candidates, so that the fallback search over every center is exercised too
+		ParallelAssignationEngine engine = newEngine(1 + repetition.getCurrentRepetition() % 4);
+		try {
+			assertSameChoicesAsExactGreedy(engine, repetition.getCurrentRepetition(), false);
+		} finally {
+			engine.shutdown();
+		}
+	}
+
+	@RepeatedTest(10)
+	void honoursRefreshedCenters(RepetitionInfo repetition) {
+		ParallelAssignationEngine engine = newEngine(2);
+		try {
+			assertSameChoicesAsExactGreedy(engine, repetition.getCurrentRepetition(), true);
+		} finally {
+			engine.shutdown();
+		}
+	}
+
+	private static ParallelAssignationEngine newEngine(int candidates) {
+		ParallelAssignationEngine engine = new ParallelAssignationEngine();
+		ReflectionTestUtils.setField(engine, "candidates", candidates);
+		ReflectionTestUtils.setField(engine, "threads", 4);
+		return engine;
+	}
+}
@@ -1,6 +1,10 @@
 package com.hackathon.inditex;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.hackathon.inditex.DTO.CenterOverride;
 import com.hackathon.inditex.DTO.CenterRequest;
+import com.hackathon.inditex.DTO.OrderRequest;
+import com.hackathon.inditex.DTO.SimulationRequest;
 import com.hackathon.inditex.Entities.Center;
 import com.hackathon.inditex.Entities.Coordinates;
 import org.junit.jupiter.api.Test;
@@ -14,7 +18,12 @@ import org.springframework.http.*;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.jdbc.Sql;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 
@@ -264,6 +273,67 @@ class InditexApplicationTests {
 		assertThat(response.getBody()).contains("There is no logistics center registered at this time");
 	}
 
+	/**
+	 * Test listing the centers one page at a time.
+	 * <p>
+	 * The test performs the following steps:
+	 * <ol>
+	 *     <li>Create three centers, the second one OCCUPIED.</li>
+	 *     <li>Send a GET request with a limit of 2 and verify it returns the first two centers,
+	 *     with the URL of the next page in the Link header.</li>
+	 *     <li>Follow the Link header and verify it returns the last center, without Link header.</li>
+	 *     <li>Send a GET request filtered by the AVAILABLE status and verify the OCCUPIED center is skipped.</li>
+	 * </ol>
+	 */
+	@Test
+	void listCentersPaginated() {
+		String url = "http://localhost:" + port + "/api/centers";
+
+		List<CenterRequest> centerRequests = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			CenterRequest centerRequest = new CenterRequest();
+			centerRequest.setName("Center " + i);
+			centerRequest.setCapacity("BMS");
+			centerRequest.setStatus(i == 1 ? "OCCUPIED" : "AVAILABLE");
+			centerRequest.setCurrentLoad(0);
+			centerRequest.setMaxCapacity(10);
+			centerRequest.setCoordinates(new Coordinates(40.0 + i, -3.0));
+			centerRequests.add(centerRequest);
+		}
+		assertThat(restTemplate.postForEntity(url + "/bulk", centerRequests, String.class).getStatusCode())
+				.isEqualTo(HttpStatus.OK);
+
+		// Send a GET request for the first page
+		ResponseEntity<List<Center>> firstPage = restTemplate.exchange(url + "?limit=2", HttpMethod.GET,
+				null, new ParameterizedTypeReference<List<Center>>() {
+				}
+		);
+		assertThat(firstPage.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(firstPage.getBody().size()).isEqualTo(2);
+		assertThat(firstPage.getBody().get(0).getName()).isEqualTo("Center 0");
+		assertThat(firstPage.getBody().get(1).getName()).isEqualTo("Center 1");
+
+		// Follow the Link header to the last page
+		String link = firstPage.getHeaders().getFirst(HttpHeaders.LINK);
+		assertThat(link).endsWith(">; rel=\"next\"");
+		String nextUrl = link.substring(1, link.indexOf('>'));
+		ResponseEntity<List<Center>> lastPage = restTemplate.exchange(nextUrl, HttpMethod.GET,
+				null, new ParameterizedTypeReference<List<Center>>() {
+				}
+		);
+		assertThat(lastPage.getBody().size()).isEqualTo(1);
+		assertThat(lastPage.getBody().getFirst().getName()).isEqualTo("Center 2");
+		assertThat(lastPage.getHeaders().containsKey(HttpHeaders.LINK)).isFalse();
+
+		// Send a GET request filtered by status
+		ResponseEntity<List<Center>> availableCenters = restTemplate.exchange(url + "?status=AVAILABLE", HttpMethod.GET,
+				null, new ParameterizedTypeReference<List<Center>>() {
+				}
+		);
+		assertThat(availableCenters.getBody().size()).isEqualTo(2);
+		assertThat(availableCenters.getBody().get(1).getName()).isEqualTo("Center 2");
+	}
+
 	// 1.3) UPDATE A CENTER
 
 	/**
@@ -708,4 +778,636 @@ class InditexApplicationTests {
 		assertThat(responseUpdate.getBody()).contains("Logistics center deleted successfully.");
 	}
 
+	// ========================================================
+	// 2) ORDER ASSIGNATION TESTS
+	// ========================================================
+
+	/**
+	 * Test two order assignations running at the same time, as if they came from two instances
+	 * of the application.
+	 * <p>
+	 * The test performs the following steps:
+	 * <ol>
+	 *     <li>Create two centers with a total capacity of 60 orders, and 100 pending orders.</li>
+	 *     <li>Send two POST requests to the order assignation endpoint concurrently.</li>
+	 *     <li>Verify that every order is processed, that no order is assigned by both runs,
+	 *     and that exactly 60 orders are assigned.</li>
+	 *     <li>Verify that the loads of the centers add up to the assigned orders, without
+	 *     exceeding their maximum capacity.</li>
+	 * </ol>
+	 * A run which finds every pending order claimed by the other one answers with an error.
+	 */
+	@Test
+	void concurrentAssignationsNeverAssignTwice() {
+		String urlCenters = "http://localhost:" + port + "/api/centers";
+		String urlOrders = "http://localhost:" + port + "/api/orders";
+
+		List<CenterRequest> centerRequests = new ArrayList<>();
+		for (int i = 0; i < 2; i++) {
+			CenterRequest centerRequest = new CenterRequest();
+			centerRequest.setName("Center " + i);
+			centerRequest.setCapacity("BMS");
+			centerRequest.setStatus("AVAILABLE");
+			centerRequest.setCurrentLoad(0);
+			centerRequest.setMaxCapacity(30);
+			centerRequest.setCoordinates(new Coordinates(40.0 + i, -3.0));
+			centerRequests.add(centerRequest);
+		}
+		assertThat(restTemplate.postForEntity(urlCenters + "/bulk", centerRequests, String.class).getStatusCode())
+				.isEqualTo(HttpStatus.OK);
+
+		List<OrderRequest> orderRequests = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			OrderRequest orderRequest = new OrderRequest();
+			orderRequest.setCustomerId((long) i);
+			orderRequest.setSize("M");
+			orderRequest.setCoordinates(new Coordinates(40.0 + i / 100.0, -3.0));
+			orderRequests.add(orderRequest);
+		}
+		assertThat(restTemplate.postForEntity(urlOrders + "/bulk", orderRequests, String.class).getStatusCode())
+				.isEqualTo(HttpStatus.OK);
+
+		// Send both POST requests at the same time
+		List<CompletableFuture<ResponseEntity<JsonNode>>> responses = List.of(
+				CompletableFuture.supplyAsync(() -> restTemplate.postForEntity(urlOrders + "/order-assignations", null, JsonNode.class)),
+				CompletableFuture.supplyAsync(() -> restTemplate.postForEntity(urlOrders + "/order-assignations", null, JsonNode.class))
+		);
+
+		// Verify every order has been processed, and assigned by a single run at most
+		Set<Long> processedOrderIds = new HashSet<>();
+		Set<Long> assignedOrderIds = new HashSet<>();
+		for (CompletableFuture<ResponseEntity<JsonNode>> response : responses) {
+			ResponseEntity<JsonNode> assignationResponse = response.join();
+			if (assignationResponse.getStatusCode() != HttpStatus.OK) continue;
+
+			for (JsonNode orderAssignation : assignationResponse.getBody().get("processed-orders")) {
+				Long orderId = orderAssignation.get("orderId").asLong();
+				processedOrderIds.add(orderId);
+				if ("ASSIGNED".equals(orderAssignation.get("status").asText())) {
+					assertThat(assignedOrderIds.add(orderId)).isTrue();
+				}
+			}
+		}
+		assertThat(processedOrderIds.size()).isEqualTo(100);
+		assertThat(assignedOrderIds.size()).isEqualTo(60);
+
+		// Verify the center loads
+		ResponseEntity<List<Center>> responseList = restTemplate.exchange(urlCenters, HttpMethod.GET,
+				null, new ParameterizedTypeReference<List<Center>>() {
+				}
+		);
+		assertThat(responseList.getBody()).isNotNull();
+		int totalLoad = 0;
+		for (Center center : responseList.getBody()) {
+			assertThat(center.getCurrentLoad()).isLessThanOrEqualTo(center.getMaxCapacity());
+			totalLoad += center.getCurrentLoad();
+		}
+		assertThat(totalLoad).isEqualTo(60);
+	}
+
+	/**
+	 * Test assigning the orders with an asynchronous job.
+	 * <p>
+	 * The test performs the following steps:
+	 * <ol>
+	 *     <li>Create a center with a maximum capacity of 30 orders, and 50 pending orders.</li>
+	 *     <li>Send a POST request to start a job and verify it is ACCEPTED, with the job URL in the Location header.</li>
+	 *     <li>Poll the job until it finishes and verify its progress counts.</li>
+	 *     <li>Read its results in two pages, following the Link header.</li>
+	 *     <li>Send a GET request for an unknown job and verify it is NOT_FOUND.</li>
+	 * </ol>
+	 */
+	@Test
+	void assignationJobCompletes() throws InterruptedException {
+		String urlCenters = "http://localhost:" + port + "/api/centers";
+		String urlOrders = "http://localhost:" + port + "/api/orders";
+
+		CenterRequest centerRequest = new CenterRequest();
+		centerRequest.setName("Center");
+		centerRequest.setCapacity("BMS");
+		centerRequest.setStatus("AVAILABLE");
+		centerRequest.setCurrentLoad(0);
+		centerRequest.setMaxCapacity(30);
+		centerRequest.setCoordinates(new Coordinates(40.0, -3.0));
+		assertThat(restTemplate.postForEntity(urlCenters, centerRequest, String.class).getStatusCode())
+				.isEqualTo(HttpStatus.CREATED);
+
+		List<OrderRequest> orderRequests = new ArrayList<>();
+		for (int i = 0; i < 50; i++) {
+			OrderRequest orderRequest = new OrderRequest();
+			orderRequest.setCustomerId((long) i);
+			orderRequest.setSize("B");
+			orderRequest.setCoordinates(new Coordinates(40.0 + i / 100.0, -3.0));
+			orderRequests.add(orderRequest);
+		}
+		assertThat(restTemplate.postForEntity(urlOrders + "/bulk", orderRequests, String.class).getStatusCode())
+				.isEqualTo(HttpStatus.OK);
+
+		// Start the job
+		ResponseEntity<JsonNode> started = restTemplate.postForEntity(urlOrders + "/order-assignations/jobs", null, JsonNode.class);
+		assertThat(started.getStatusCode()).isEqualTo(HttpStatus.ACCEPTED);
+		String jobUrl = started.getHeaders().getLocation().toString();
+		assertThat(jobUrl).endsWith("/order-assignations/jobs/" + started.getBody().get("id").asText());
+
+		// Poll the job until it finishes
+		JsonNode job = started.getBody();
+		for (int i = 0; i < 100 && "RUNNING".equals(job.get("status").asText()); i++) {
+			Thread.sleep(100);
+			job = restTemplate.getForEntity(jobUrl, JsonNode.class).getBody();
+		}
+		assertThat(job.get("status").asText()).isEqualTo("COMPLETED");
+		assertThat(job.get("pendingOrders").asLong()).isEqualTo(50L);
+		assertThat(job.get("processedOrders").asInt()).isEqualTo(50);
+		assertThat(job.get("assignedOrders").asInt()).isEqualTo(30);
+		assertThat(job.get("unassignedOrders").asInt()).isEqualTo(20);
+
+		// Read its results in two pages
+		ResponseEntity<JsonNode> firstPage = restTemplate.getForEntity(jobUrl + "/results?limit=40", JsonNode.class);
+		assertThat(firstPage.getBody().size()).isEqualTo(40);
+		assertThat(firstPage.getBody().get(0).get("status").asText()).isEqualTo("ASSIGNED");
+		String link = firstPage.getHeaders().getFirst(HttpHeaders.LINK);
+		ResponseEntity<JsonNode> lastPage = restTemplate.getForEntity(link.substring(1, link.indexOf('>')), JsonNode.class);
+		assertThat(lastPage.getBody().size()).isEqualTo(10);
+		assertThat(lastPage.getBody().get(9).get("status").asText()).isEqualTo("PENDING");
+		assertThat(lastPage.getHeaders().containsKey(HttpHeaders.LINK)).isFalse();
+
+		// Read an unknown job
+		ResponseEntity<String> unknownJob = restTemplate.getForEntity(urlOrders + "/order-assignations/jobs/unknown", String.class);
+		assertThat(unknownJob.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+	}
+
+	/**
+	 * Test simulating the order assignation with a what-if scenario.
+	 * <p>
+	 * The test performs the following steps:
+	 * <ol>
+	 *     <li>Create a center with a maximum capacity of 2 orders, and 5 pending orders next to it.</li>
+	 *     <li>Simulate the assignation raising its maximum capacity to 3, with a hypothetical center
+	 *     further away, and verify the outcomes, the projected center loads and the stats.</li>
+	 *     <li>Verify that the simulation has modified neither the center nor the orders.</li>
+	 *     <li>Simulate the assignation with an unknown engine and verify it is rejected with BAD_REQUEST.</li>
+	 * </ol>
+	 */
+	@Test
+	void simulateAssignationWithoutChanges() {
+		String urlCenters = "http://localhost:" + port + "/api/centers";
+		String urlOrders = "http://localhost:" + port + "/api/orders";
+
+		CenterRequest centerRequest = new CenterRequest();
+		centerRequest.setName("Madrid");
+		centerRequest.setCapacity("BMS");
+		centerRequest.setStatus("AVAILABLE");
+		centerRequest.setCurrentLoad(0);
+		centerRequest.setMaxCapacity(2);
+		centerRequest.setCoordinates(new Coordinates(40.0, -3.0));
+		ResponseEntity<JsonNode> centerResponse = restTemplate.postForEntity(urlCenters + "/bulk", List.of(centerRequest), JsonNode.class);
+		long centerId = centerResponse.getBody().get("results").get(0).get("id").asLong();
+
+		List<OrderRequest> orderRequests = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			OrderRequest orderRequest = new OrderRequest();
+			orderRequest.setCustomerId((long) i);
+			orderRequest.setSize("S");
+			orderRequest.setCoordinates(new Coordinates(40.0, -3.0 + i / 100.0));
+			orderRequests.add(orderRequest);
+		}
+		assertThat(restTemplate.postForEntity(urlOrders + "/bulk", orderRequests, String.class).getStatusCode())
+				.isEqualTo(HttpStatus.OK);
+
+		// Simulate the assignation with a larger center and a hypothetical one
+		CenterRequest hypotheticalCenter = new CenterRequest();
+		hypotheticalCenter.setName("Toledo");
+		hypotheticalCenter.setCapacity("S");
+		hypotheticalCenter.setStatus("AVAILABLE");
+		hypotheticalCenter.setCurrentLoad(0);
+		hypotheticalCenter.setMaxCapacity(10);
+		hypotheticalCenter.setCoordinates(new Coordinates(39.9, -4.0));
+		CenterOverride override = new CenterOverride();
+		override.setCenterId(centerId);
+		override.setMaxCapacity(3);
+		SimulationRequest simulationRequest = new SimulationRequest();
+		simulationRequest.setHypotheticalCenters(List.of(hypotheticalCenter));
+		simulationRequest.setOverrides(List.of(override));
+
+		ResponseEntity<JsonNode> simulation = restTemplate.postForEntity(
+				urlOrders + "/order-assignations/simulation", simulationRequest, JsonNode.class);
+		assertThat(simulation.getStatusCode()).isEqualTo(HttpStatus.OK);
+		JsonNode stats = simulation.getBody().get("stats");
+		assertThat(stats.get("pendingOrders").asInt()).isEqualTo(5);
+		assertThat(stats.get("assignedOrders").asInt()).isEqualTo(5);
+		assertThat(stats.get("fullOrders").asInt()).isEqualTo(0);
+		JsonNode processedOrders = simulation.getBody().get("processed-orders");
+		assertThat(processedOrders.size()).isEqualTo(5);
+		assertThat(processedOrders.get(0).get("assignedLogisticsCenter").asText()).isEqualTo("Madrid");
+		assertThat(processedOrders.get(2).get("assignedLogisticsCenter").asText()).isEqualTo("Madrid");
+		assertThat(processedOrders.get(3).get("assignedLogisticsCenter").asText()).isEqualTo("Toledo");
+		JsonNode centers = simulation.getBody().get("centers");
+		assertThat(centers.size()).isEqualTo(2);
+		assertThat(centers.get(0).get("id").asLong()).isEqualTo(-1L);
+		assertThat(centers.get(0).get("currentLoad").asInt()).isEqualTo(2);
+		assertThat(centers.get(1).get("currentLoad").asInt()).isEqualTo(3);
+		assertThat(centers.get(1).get("maxCapacity").asInt()).isEqualTo(3);
+
+		// Verify nothing has been modified
+		ResponseEntity<List<Center>> responseList = restTemplate.exchange(urlCenters, HttpMethod.GET,
+				null, new ParameterizedTypeReference<List<Center>>() {
+				}
+		);
+		assertThat(responseList.getBody().size()).isEqualTo(1);
+		assertThat(responseList.getBody().get(0).getCurrentLoad()).isEqualTo(0);
+		assertThat(responseList.getBody().get(0).getMaxCapacity()).isEqualTo(2);
+		ResponseEntity<JsonNode> pendingOrders = restTemplate.getForEntity(urlOrders + "?status=PENDING", JsonNode.class);
+		assertThat(pendingOrders.getBody().size()).isEqualTo(5);
+
+		// Simulate the assignation with an unknown engine
+		SimulationRequest invalidRequest = new SimulationRequest();
+		invalidRequest.setEngine("unknown");
+		ResponseEntity<String> invalidEngine = restTemplate.postForEntity(
+				urlOrders + "/order-assignations/simulation", invalidRequest, String.class);
+		assertThat(invalidEngine.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+		assertThat(invalidEngine.getBody()).contains("Invalid engine value");
+	}
+
+	// ========================================================
+	// 3) ORDER LIST TESTS
+	// ========================================================
+
+	/**
+	 * Test listing the orders one page at a time, filtered by customer.
+	 * <p>
+	 * The test performs the following steps:
+	 * <ol>
+	 *     <li>Create five orders, three of them from the same customer.</li>
+	 *     <li>Send a GET request for that customer with a limit of 2 and verify it returns
+	 *     their first two orders, with the URL of the next page in the Link header.</li>
+	 *     <li>Follow the Link header and verify it returns the third order of the customer.</li>
+	 *     <li>Send a GET request with an invalid limit and verify it is rejected with BAD_REQUEST.</li>
+	 * </ol>
+	 */
+	@Test
+	void listOrdersPaginatedAndFiltered() {
+		String url = "http://localhost:" + port + "/api/orders";
+
+		List<OrderRequest> orderRequests = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			OrderRequest orderRequest = new OrderRequest();
+			orderRequest.setCustomerId(i % 2 == 0 ? 7L : 8L);
+			orderRequest.setSize("S");
+			orderRequest.setCoordinates(new Coordinates(40.0, -3.0 + i));
+			orderRequests.add(orderRequest);
+		}
+		assertThat(restTemplate.postForEntity(url + "/bulk", orderRequests, String.class).getStatusCode())
+				.isEqualTo(HttpStatus.OK);
+
+		// Send a GET request for the first page of the customer
+		ResponseEntity<JsonNode> firstPage = restTemplate.getForEntity(url + "?customerId=7&limit=2", JsonNode.class);
+		assertThat(firstPage.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(firstPage.getBody().size()).isEqualTo(2);
+		assertThat(firstPage.getBody().get(0).get("coordinates").get("longitude").asDouble()).isEqualTo(-3.0);
+		assertThat(firstPage.getBody().get(1).get("coordinates").get("longitude").asDouble()).isEqualTo(-1.0);
+		assertThat(firstPage.getBody().get(1).get("status").asText()).isEqualTo("PENDING");
+
+		// Follow the Link header to the last page of the customer
+		String link = firstPage.getHeaders().getFirst(HttpHeaders.LINK);
+		String nextUrl = link.substring(1, link.indexOf('>'));
+		assertThat(nextUrl).contains("customerId=7");
+		ResponseEntity<JsonNode> lastPage = restTemplate.getForEntity(nextUrl, JsonNode.class);
+		assertThat(lastPage.getBody().size()).isEqualTo(1);
+		assertThat(lastPage.getBody().get(0).get("customerId").asLong()).isEqualTo(7L);
+		assertThat(lastPage.getBody().get(0).get("coordinates").get("longitude").asDouble()).isEqualTo(1.0);
+		assertThat(lastPage.getHeaders().containsKey(HttpHeaders.LINK)).isFalse();
+
+		// Send a GET request with an invalid limit
+		ResponseEntity<String> invalidLimit = restTemplate.getForEntity(url + "?limit=0", String.class);
+		assertThat(invalidLimit.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+		assertThat(invalidLimit.getBody()).contains("Invalid limit value");
+	}
+
+	/**
+	 * Test exporting the orders as CSV and as NDJSON.
+	 * <p>
+	 * The test performs the following steps:
+	 * <ol>
+	 *     <li>Create three orders, one of them for a customer with a single order.</li>
+	 *     <li>Export every order as CSV and verify the header and one line per order, in id order.</li>
+	 *     <li>Export the orders of the single-order customer as NDJSON and verify the line.</li>
+	 * </ol>
+	 */
+	@Test
+	void exportOrdersCsvAndNdjson() {
+		String url = "http://localhost:" + port + "/api/orders";
+
+		List<OrderRequest> orderRequests = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			OrderRequest orderRequest = new OrderRequest();
+			orderRequest.setCustomerId(i == 2 ? 9L : 1L);
+			orderRequest.setSize("B");
+			orderRequest.setCoordinates(new Coordinates(10.0 + i, 20.0));
+			orderRequests.add(orderRequest);
+		}
+		assertThat(restTemplate.postForEntity(url + "/bulk", orderRequests, String.class).getStatusCode())
+				.isEqualTo(HttpStatus.OK);
+
+		// Export every order as CSV
+		ResponseEntity<String> csv = restTemplate.getForEntity(url + "/export", String.class);
+		assertThat(csv.getStatusCode()).isEqualTo(HttpStatus.OK);
+		String[] lines = csv.getBody().split("\n");
+		assertThat(lines.length).isEqualTo(4);
+		assertThat(lines[0]).isEqualTo("id,customerId,size,status,assignedCenter,latitude,longitude");
+		assertThat(lines[1]).endsWith(",1,B,PENDING,,10.0,20.0");
+		assertThat(lines[3]).endsWith(",9,B,PENDING,,12.0,20.0");
+
+		// Export the orders of a customer as NDJSON
+		ResponseEntity<String> ndjson = restTemplate.getForEntity(url + "/export?format=ndjson&customerId=9", String.class);
+		assertThat(ndjson.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_NDJSON);
+		assertThat(ndjson.getBody().split("\n").length).isEqualTo(1);
+		assertThat(ndjson.getBody()).contains("\"customerId\":9").contains("\"latitude\":12.0");
+	}
+
+	/**
+	 * Test creating and listing orders through the reactive endpoints.
+	 * <p>
+	 * The test performs the following steps:
+	 * <ol>
+	 *     <li>Create 20 orders concurrently, so that they are inserted in batches, and verify every one
+	 *     gets its own id.</li>
+	 *     <li>Verify an order with an invalid size is rejected with BAD_REQUEST.</li>
+	 *     <li>List the orders of a customer, two per page, and verify the pages and the Link header.</li>
+	 * </ol>
+	 */
+	@Test
+	void createAndListReactiveOrders() {
+		String url = "http://localhost:" + port + "/api/reactive/orders";
+
+		// Create the orders concurrently
+		List<CompletableFuture<ResponseEntity<JsonNode>>> responses = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			OrderRequest orderRequest = new OrderRequest();
+			orderRequest.setCustomerId(i % 5 == 0 ? 7L : 1L);
+			orderRequest.setSize("S");
+			orderRequest.setCoordinates(new Coordinates(40.0 + i / 100.0, -3.0));
+			responses.add(CompletableFuture.supplyAsync(() -> restTemplate.postForEntity(url, orderRequest, JsonNode.class)));
+		}
+		Set<Long> orderIds = new HashSet<>();
+		for (CompletableFuture<ResponseEntity<JsonNode>> response : responses) {
+			assertThat(response.join().getStatusCode()).isEqualTo(HttpStatus.CREATED);
+			assertThat(response.join().getBody().get("status").asText()).isEqualTo("PENDING");
+			orderIds.add(response.join().getBody().get("orderId").asLong());
+		}
+		assertThat(orderIds.size()).isEqualTo(20);
+
+		// Reject an invalid size
+		OrderRequest invalidOrder = new OrderRequest();
+		invalidOrder.setCustomerId(1L);
+		invalidOrder.setSize("XL");
+		invalidOrder.setCoordinates(new Coordinates(40.0, -3.0));
+		ResponseEntity<String> invalidResponse = restTemplate.postForEntity(url, invalidOrder, String.class);
+		assertThat(invalidResponse.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+
+		// List the orders of a customer, two per page
+		ResponseEntity<JsonNode> firstPage = restTemplate.getForEntity(url + "?customerId=7&limit=2", JsonNode.class);
+		assertThat(firstPage.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(firstPage.getBody().size()).isEqualTo(2);
+		String link = firstPage.getHeaders().getFirst(HttpHeaders.LINK);
+		assertThat(link).contains("rel=\"next\"");
+		String nextUrl = link.substring(link.indexOf('<') + 1, link.indexOf('>'));
+
+		ResponseEntity<JsonNode> lastPage = restTemplate.getForEntity(nextUrl, JsonNode.class);
+		assertThat(lastPage.getBody().size()).isEqualTo(2);
+		assertThat(lastPage.getBody().get(0).get("customerId").asLong()).isEqualTo(7L);
+		assertThat(lastPage.getHeaders().getFirst(HttpHeaders.LINK)).isNull();
+	}
+
+	// ========================================================
+	// 4) BULK INGESTION TESTS
+	// ========================================================
+
+	// 4.1) CREATE MANY ORDERS
+
+	/**
+	 * Test creating many orders at once from a JSON array, over several insert statements.
+	 * <p>
+	 * The test performs the following steps:
+	 * <ol>
+	 *     <li>Send 1100 orders, more than two statements of {@code inditex.orders.bulk.batch-size} (500) rows,
+	 *     every 100th one with an invalid size.</li>
+	 *     <li>Verify one result per row, in order: the invalid rows REJECTED with the reason and no id,
+	 *     the others CREATED.</li>
+	 *     <li>Read every order back and verify each generated id belongs to the row it has been reported for.</li>
+	 * </ol>
+	 */
+	@Test
+	void bulkCreateOrdersMapsIdsToRows() {
+		String url = "http://localhost:" + port + "/api/orders";
+
+		List<OrderRequest> orderRequests = new ArrayList<>();
+		for (int i = 0; i < 1100; i++) {
+			OrderRequest orderRequest = new OrderRequest();
+			orderRequest.setCustomerId((long) i);
+			orderRequest.setSize(i % 100 == 99 ? "XL" : "M");
+			orderRequest.setCoordinates(new Coordinates(40.0, -3.0 + i / 10000.0));
+			orderRequests.add(orderRequest);
+		}
+		ResponseEntity<JsonNode> response = restTemplate.postForEntity(url + "/bulk", orderRequests, JsonNode.class);
+
+		// Verify one result per row, in order
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(response.getBody().get("accepted").asInt()).isEqualTo(1089);
+		assertThat(response.getBody().get("rejected").asInt()).isEqualTo(11);
+		JsonNode results = response.getBody().get("results");
+		assertThat(results.size()).isEqualTo(1100);
+		for (int i = 0; i < 1100; i++) {
+			JsonNode result = results.get(i);
+			assertThat(result.get("index").asInt()).isEqualTo(i);
+			if (i % 100 == 99) {
+				assertThat(result.get("status").asText()).isEqualTo("REJECTED");
+				assertThat(result.get("message").asText()).isEqualTo("Invalid size value");
+				assertThat(result.get("id").isNull()).isTrue();
+			} else {
+				assertThat(result.get("status").asText()).isEqualTo("CREATED");
+			}
+		}
+
+		// Read every order back: the customer of each order is the index of its row
+		Set<Long> orderIds = new HashSet<>();
+		String nextUrl = url + "?limit=1000";
+		while (nextUrl != null) {
+			ResponseEntity<JsonNode> page = restTemplate.getForEntity(nextUrl, JsonNode.class);
+			for (JsonNode order : page.getBody()) {
+				long id = order.get("id").asLong();
+				int index = order.get("customerId").asInt();
+				assertThat(results.get(index).get("id").asLong()).isEqualTo(id);
+				orderIds.add(id);
+			}
+			String link = page.getHeaders().getFirst(HttpHeaders.LINK);
+			nextUrl = link == null ? null : link.substring(link.indexOf('<') + 1, link.indexOf('>'));
+		}
+		assertThat(orderIds.size()).isEqualTo(1089);
+	}
+
+	/**
+	 * Test creating many orders at once from NDJSON, one order per line.
+	 * <p>
+	 * The test performs the following steps:
+	 * <ol>
+	 *     <li>Send three lines, the second one without coordinates, and a blank line.</li>
+	 *     <li>Verify the valid lines are CREATED and the other one REJECTED, in order.</li>
+	 *     <li>Send a malformed line and verify the whole request is rejected with BAD_REQUEST, creating nothing.</li>
+	 * </ol>
+	 */
+	@Test
+	void bulkCreateOrdersFromNdjson() {
+		String url = "http://localhost:" + port + "/api/orders/bulk";
+		HttpHeaders headers = new HttpHeaders();
+		headers.setContentType(MediaType.APPLICATION_NDJSON);
+
+		String ndjson = """
+				{"customerId": 1, "size": "S", "coordinates": {"latitude": 40.1, "longitude": -3.1}}
+				{"customerId": 2, "size": "M"}
+
+				{"customerId": 3, "size": "B", "coordinates": {"latitude": 40.3, "longitude": -3.3}}
+				""";
+		ResponseEntity<JsonNode> response = restTemplate.postForEntity(url, new HttpEntity<>(ndjson, headers), JsonNode.class);
+
+		// Verify the outcome of every line
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(response.getBody().get("accepted").asInt()).isEqualTo(2);
+		assertThat(response.getBody().get("rejected").asInt()).isEqualTo(1);
+		JsonNode results = response.getBody().get("results");
+		assertThat(results.get(0).get("status").asText()).isEqualTo("CREATED");
+		assertThat(results.get(1).get("status").asText()).isEqualTo("REJECTED");
+		assertThat(results.get(1).get("message").asText()).contains("coordinates");
+		assertThat(results.get(2).get("status").asText()).isEqualTo("CREATED");
+		assertThat(results.get(2).get("id").asLong()).isGreaterThan(results.get(0).get("id").asLong());
+
+		// A malformed line rejects the whole request
+		String malformed = """
+				{"customerId": 4, "size": "S", "coordinates": {"latitude": 40.4, "longitude": -3.4}}
+				{"customerId": 5, "size":
+				""";
+		ResponseEntity<String> badRequest = restTemplate.postForEntity(url, new HttpEntity<>(malformed, headers), String.class);
+		assertThat(badRequest.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+		assertThat(badRequest.getBody()).contains("Malformed NDJSON");
+
+		ResponseEntity<JsonNode> orders = restTemplate.getForEntity("http://localhost:" + port + "/api/orders", JsonNode.class);
+		assertThat(orders.getBody().size()).isEqualTo(2);
+	}
+
+	// 4.2) IMPORT MANY CENTERS
+
+	/**
+	 * Test importing centers from a JSON array, creating and updating centers.
+	 * <p>
+	 * The test performs the following steps:
+	 * <ol>
+	 *     <li>Create a center through the regular endpoint.</li>
+	 *     <li>Import three centers: one at the coordinates of the existing center, one new, and one with an invalid
+	 *     capacity, then one repeating the coordinates of a previous row.</li>
+	 *     <li>Verify the outcome of every row, and that the existing center has been updated in place.</li>
+	 * </ol>
+	 */
+	@Test
+	void importCentersCreatesAndUpdates() {
+		String url = "http://localhost:" + port + "/api/centers";
+
+		CenterRequest existingCenter = new CenterRequest();
+		existingCenter.setName("Madrid North");
+		existingCenter.setCapacity("S");
+		existingCenter.setStatus("AVAILABLE");
+		existingCenter.setCurrentLoad(0);
+		existingCenter.setMaxCapacity(10);
+		existingCenter.setCoordinates(new Coordinates(40.4, -3.7));
+		assertThat(restTemplate.postForEntity(url, existingCenter, String.class).getStatusCode()).isEqualTo(HttpStatus.CREATED);
+		long existingId = restTemplate.getForEntity(url, JsonNode.class).getBody().get(0).get("id").asLong();
+
+		List<CenterRequest> centerRequests = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			CenterRequest centerRequest = new CenterRequest();
+			centerRequest.setName("Imported " + i);
+			centerRequest.setCapacity(i == 2 ? "XL" : "BMS");
+			centerRequest.setStatus("AVAILABLE");
+			centerRequest.setCurrentLoad(1);
+			centerRequest.setMaxCapacity(50);
+			centerRequest.setCoordinates(i == 0 || i == 3 ? new Coordinates(40.4, -3.7) : new Coordinates(41.0 + i, 2.0));
+			centerRequests.add(centerRequest);
+		}
+		ResponseEntity<JsonNode> response = restTemplate.postForEntity(url + "/bulk", centerRequests, JsonNode.class);
+
+		// Verify the outcome of every row
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(response.getBody().get("accepted").asInt()).isEqualTo(2);
+		assertThat(response.getBody().get("rejected").asInt()).isEqualTo(2);
+		JsonNode results = response.getBody().get("results");
+		assertThat(results.get(0).get("status").asText()).isEqualTo("UPDATED");
+		assertThat(results.get(0).get("id").asLong()).isEqualTo(existingId);
+		assertThat(results.get(1).get("status").asText()).isEqualTo("CREATED");
+		assertThat(results.get(2).get("status").asText()).isEqualTo("REJECTED");
+		assertThat(results.get(2).get("message").asText()).isEqualTo("Invalid capacity value");
+		assertThat(results.get(3).get("status").asText()).isEqualTo("REJECTED");
+		assertThat(results.get(3).get("message").asText()).contains("in the request");
+
+		// The existing center has been updated in place
+		JsonNode centers = restTemplate.getForEntity(url, JsonNode.class).getBody();
+		assertThat(centers.size()).isEqualTo(2);
+		assertThat(centers.get(0).get("id").asLong()).isEqualTo(existingId);
+		assertThat(centers.get(0).get("name").asText()).isEqualTo("Imported 0");
+		assertThat(centers.get(0).get("capacity").asText()).isEqualTo("BMS");
+		assertThat(centers.get(0).get("currentLoad").asInt()).isEqualTo(1);
+	}
+
+	/**
+	 * Test importing centers from CSV.
+	 * <p>
+	 * The test performs the following steps:
+	 * <ol>
+	 *     <li>Import a CSV starting with a byte order mark, with the columns reordered, quoted fields (one with a
+	 *     comma, one with doubled quotes), a blank line, a line with a malformed number and a line with a
+	 *     missing field.</li>
+	 *     <li>Verify the valid lines are CREATED with their fields unquoted, and the malformed and incomplete
+	 *     lines REJECTED on their own.</li>
+	 *     <li>Import a CSV without the longitude column and verify it is rejected with BAD_REQUEST.</li>
+	 * </ol>
+	 */
+	@Test
+	void importCentersFromCsv() {
+		String url = "http://localhost:" + port + "/api/centers";
+		HttpHeaders headers = new HttpHeaders();
+		headers.setContentType(new MediaType("text", "csv", StandardCharsets.UTF_8));
+
+		String csv = "\uFEFFlatitude,longitude,name,capacity,status,currentLoad,maxCapacity\n"
+				+ "40.1,-3.1,\"Madrid, North\",BMS,AVAILABLE,0,50\n"
+				+ "\n"
+				+ "41.2,2.1,\"The \"\"Big\"\" One\",B,OCCUPIED,5,5\n"
+				+ "42.3,abc,Broken,S,AVAILABLE,0,10\n"
+				+ "43.4,4.4,Incomplete,S,AVAILABLE,,10\n";
+		ResponseEntity<JsonNode> response = restTemplate.postForEntity(url + "/bulk", new HttpEntity<>(csv, headers), JsonNode.class);
+
+		// Verify the outcome of every line
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(response.getBody().get("accepted").asInt()).isEqualTo(2);
+		assertThat(response.getBody().get("rejected").asInt()).isEqualTo(2);
+		JsonNode results = response.getBody().get("results");
+		assertThat(results.size()).isEqualTo(4);
+		assertThat(results.get(0).get("status").asText()).isEqualTo("CREATED");
+		assertThat(results.get(1).get("status").asText()).isEqualTo("CREATED");
+		assertThat(results.get(2).get("status").asText()).isEqualTo("REJECTED");
+		assertThat(results.get(2).get("message").asText()).contains("Malformed number in CSV line 5");
+		assertThat(results.get(3).get("status").asText()).isEqualTo("REJECTED");
+		assertThat(results.get(3).get("message").asText()).isEqualTo("Empty currentLoad or maxCapacity values");
+
+		// The fields have been unquoted
+		JsonNode centers = restTemplate.getForEntity(url, JsonNode.class).getBody();
+		assertThat(centers.size()).isEqualTo(2);
+		assertThat(centers.get(0).get("name").asText()).isEqualTo("Madrid, North");
+		assertThat(centers.get(0).get("coordinates").get("latitude").asDouble()).isEqualTo(40.1);
+		assertThat(centers.get(1).get("name").asText()).isEqualTo("The \"Big\" One");
+		assertThat(centers.get(1).get("status").asText()).isEqualTo("OCCUPIED");
+
+		// A missing column rejects the whole import
+		String missingColumn = "name,capacity,status,currentLoad,maxCapacity,latitude\n"
+				+ "Lisbon,S,AVAILABLE,0,10,38.7\n";
+		ResponseEntity<String> badRequest = restTemplate.postForEntity(url + "/bulk", new HttpEntity<>(missingColumn, headers), String.class);
+		assertThat(badRequest.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+		assertThat(badRequest.getBody()).contains("Missing CSV column: longitude");
+	}
 }
@@ -0,0 +1,207 @@
+package com.hackathon.inditex;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+
+/**
+ * Load test of the order creation endpoint with virtual threads, against platform threads.
+ * <p>
+ * The application is started twice with the same settings and the shipped database concurrency limiter,
+ * the Tomcat thread pool limited to {@value #TOMCAT_THREADS} threads: once with platform threads, which bound
+ * the requests handled at the same time to the Tomcat threads, and once with virtual threads, with which every
+ * request gets its own thread and is only queued by the limiter.
+ * <p>
+ * Every connection taken from the pool first waits {@value #NETWORK_ROUND_TRIP_MILLIS} ms, the network round
+ * trip of a remote database, which an in-memory database would otherwise answer without ever blocking the
+ * request threads.
+ * <p>
+ * Excluded from the regular builds: run it with {@code mvn -Pload-test test}.
+ */
+@Tag("load")
+@Slf4j
+class OrderCreationLoadTest {
+
+	static final int TOMCAT_THREADS = 20;
+	static final long NETWORK_ROUND_TRIP_MILLIS = 5;
+
+	private static final int REQUESTS = 5000;
+	private static final int CLIENT_CONCURRENCY = 100;
+
+	/**
+	 * Test creating orders with {@value #CLIENT_CONCURRENCY} concurrent clients, with platform then virtual threads.
+	 * <p>
+	 * The test performs the following steps:
+	 * <ol>
+	 *     <li>Start the application with platform threads, and send it {@value #REQUESTS} POST requests to the order
+	 *     endpoint, {@value #CLIENT_CONCURRENCY} at a time, while sampling the requests held by the database
+	 *     concurrency limiter.</li>
+	 *     <li>Do the same with virtual threads.</li>
+	 *     <li>Verify no request has been rejected with SERVICE_UNAVAILABLE in either run, and every order reported
+	 *     as created is in the database.</li>
+	 *     <li>Verify more requests have been handled at the same time with virtual threads than with platform
+	 *     threads, which never exceed the Tomcat threads.</li>
+	 * </ol>
+	 */
+	@Test
+	void virtualThreadsSustainMoreConcurrentRequestsThanPlatformThreads() throws Exception {
+		LoadRun platformThreads = createOrders(false);
+		LoadRun virtualThreads = createOrders(true);
+
+		// Verify no request has been rejected by the limiter
+		assertThat(platformThreads.rejected()).isZero();
+		assertThat(virtualThreads.rejected()).isZero();
+
+		// Verify more requests have been in flight at the same time with virtual threads
+		assertThat(platformThreads.peakInFlight()).isLessThanOrEqualTo(TOMCAT_THREADS);
+		assertThat(virtualThreads.peakInFlight()).isGreaterThan(platformThreads.peakInFlight());
+	}
+
+	/** Result of a load run: orders created and rejected, throughput, latency percentiles and peak of requests in the limiter. */
+	private record LoadRun(int created, int rejected, double requestsPerSecond, double p50Millis, double p99Millis,
+						   double peakInFlight) {
+	}
+
+	/** Delays every connection taken from the pool by a network round trip. */
+	static class NetworkLatency {
+
+		@Bean
+		static BeanPostProcessor networkLatencyPostProcessor() {
+			return new BeanPostProcessor() {
+				@Override
+				public Object postProcessAfterInitialization(Object bean, String beanName) {
+					if (!(bean instanceof DataSource dataSource)) return bean;
+					return new DelegatingDataSource(dataSource) {
+						@Override
+						public Connection getConnection() throws SQLException {
+							try {
+								Thread.sleep(NETWORK_ROUND_TRIP_MILLIS);
+							} catch (InterruptedException e) {
+								Thread.currentThread().interrupt();
+							}
+							return super.getConnection();
+						}
+					};
+				}
+			};
+		}
+	}
+
+	/**
+	 * Starts the application, creates {@value #REQUESTS} orders through its REST API, {@value #CLIENT_CONCURRENCY}
+	 * at a time, and stops it.
+	 *
+	 * @param virtualThreads Whether the application runs the requests on virtual threads.
+	 * @return The result of the run.
+	 */
+	private static LoadRun createOrders(boolean virtualThreads) throws Exception {
+		try (ConfigurableApplicationContext context = new SpringApplicationBuilder(InditexApplication.class, NetworkLatency.class)
+				.profiles("test")
+				.run("--server.port=0",
+						"--spring.threads.virtual.enabled=" + virtualThreads,
+						"--server.tomcat.threads.max=" + TOMCAT_THREADS)) {
+			JdbcTemplate jdbcTemplate = new JdbcTemplate(context.getBean(DataSource.class));
+			long existingOrders = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM orders", Long.class);
+			MeterRegistry meterRegistry = context.getBean(MeterRegistry.class);
+			int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+
+			HttpClient client = HttpClient.newBuilder()
+					.version(HttpClient.Version.HTTP_1_1)
+					.executor(Executors.newVirtualThreadPerTaskExecutor())
+					.build();
+			URI uri = URI.create("http://localhost:" + port + "/api/orders");
+
+			// Sample the requests in the limiter: holding a permit or waiting for one
+			AtomicBoolean sampling = new AtomicBoolean(true);
+			double[] peakInFlight = new double[1];
+			Thread sampler = Thread.ofPlatform().start(() -> {
+				while (sampling.get()) {
+					double inFlight = meterRegistry.get("inditex.db.limiter.active").gauge().value()
+							+ meterRegistry.get("inditex.db.limiter.waiting").gauge().value();
+					peakInFlight[0] = Math.max(peakInFlight[0], inFlight);
+					try {
+						Thread.sleep(1);
+					} catch (InterruptedException e) {
+						return;
+					}
+				}
+			});
+
+			// Send the requests, CLIENT_CONCURRENCY at a time
+			long start = System.nanoTime();
+			int[] statusCounts = new int[600];
+			long[] latencies = new long[REQUESTS];
+			Semaphore clients = new Semaphore(CLIENT_CONCURRENCY);
+			try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+				List<Future<Integer>> responses = new ArrayList<>(REQUESTS);
+				for (int i = 0; i < REQUESTS; i++) {
+					int request = i;
+					String body = "{\"customerId\":" + i + ",\"size\":\"M\",\"coordinates\":{\"latitude\":"
+							+ (40.0 + i % 100 / 100.0) + ",\"longitude\":-3.0}}";
+					responses.add(executor.submit(() -> {
+						clients.acquire();
+						try {
+							long requestStart = System.nanoTime();
+							HttpResponse<Void> response = client.send(HttpRequest.newBuilder(uri)
+									.header("Content-Type", "application/json")
+									.POST(HttpRequest.BodyPublishers.ofString(body))
+									.build(), HttpResponse.BodyHandlers.discarding());
+							latencies[request] = System.nanoTime() - requestStart;
+							return response.statusCode();
+						} finally {
+							clients.release();
+						}
+					}));
+				}
+				for (Future<Integer> response : responses) {
+					statusCounts[response.get()]++;
+				}
+			} finally {
+				sampling.set(false);
+				sampler.join();
+			}
+			double seconds = (System.nanoTime() - start) / 1e9;
+
+			Arrays.sort(latencies);
+			LoadRun loadRun = new LoadRun(statusCounts[201], statusCounts[503], REQUESTS / seconds,
+					latencies[REQUESTS / 2] / 1e6, latencies[REQUESTS * 99 / 100] / 1e6, peakInFlight[0]);
+			log.info("{} threads: {} orders created and {} rejected in {} s ({} requests/s), p50 {} ms, p99 {} ms, "
+							+ "peak {} requests in flight",
+					virtualThreads ? "Virtual" : "Platform", loadRun.created(), loadRun.rejected(),
+					String.format("%.2f", seconds), Math.round(loadRun.requestsPerSecond()),
+					String.format("%.1f", loadRun.p50Millis()), String.format("%.1f", loadRun.p99Millis()),
+					Math.round(loadRun.peakInFlight()));
+
+			// Every order reported as created is in the database
+			assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM orders", Long.class))
+					.isEqualTo(existingOrders + loadRun.created());
+			return loadRun;
+		}
+	}
+}